@@ -0,0 +1,69 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.util.LruCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a hit in the {@link LruCache} behind the store cache and conditional GETs, read by several threads at once,
+ * either all on the same hot key or spread over {@code keys} keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Param({"1", "64"})
+    public int keys;
+
+    private LruCache<String, String> cache;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        cache = new LruCache<>(1, TimeUnit.HOURS, Long.MAX_VALUE, String::length);
+        names = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            names[i] = "casbin/store_" + i;
+            cache.put(names[i], "store_" + i, cache.generation());
+        }
+    }
+
+    @Benchmark
+    public String hit() {
+        return cache.get(names[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+}
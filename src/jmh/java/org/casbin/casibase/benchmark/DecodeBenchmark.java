@@ -0,0 +1,95 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding cost of the largest response shapes: get-records listings and a get-store response with a deep file tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DecodeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Records {
+        @Param({"1000", "100000"})
+        public int records;
+
+        ObjectReader reader;
+        byte[] body;
+
+        @Setup
+        public void setUp() throws IOException {
+            ObjectMapper mapper = Fixtures.newObjectMapper();
+            reader = mapper.readerFor(new TypeReference<CasibaseResponse<List<Record>, Object>>() {
+            });
+            body = Fixtures.okResponse(mapper, Fixtures.records(records), records);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stores {
+        @Param({"4", "8"})
+        public int depth;
+
+        ObjectReader reader;
+        byte[] body;
+
+        @Setup
+        public void setUp() throws IOException {
+            ObjectMapper mapper = Fixtures.newObjectMapper();
+            reader = mapper.readerFor(new TypeReference<CasibaseResponse<Store, Object>>() {
+            });
+            body = Fixtures.okResponse(mapper, Fixtures.store("store_1", depth, 3), null);
+        }
+    }
+
+    @Benchmark
+    public CasibaseResponse<List<Record>, Object> decodeRecords(Records state) throws IOException {
+        return state.reader.readValue(new ByteArrayInputStream(state.body));
+    }
+
+    @Benchmark
+    public CasibaseResponse<Store, Object> decodeStore(Stores state) throws IOException {
+        return state.reader.readValue(new ByteArrayInputStream(state.body));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.casbin.casibase.entity.File;
+import org.casbin.casibase.entity.Prompt;
+import org.casbin.casibase.entity.Properties;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.util.http.CasibaseResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static ObjectMapper newObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    static Record record(int i) {
+        return new Record("casbin", "record_" + i, "2025-01-01T00:00:00+08:00", "casbin", "120.85.97.21",
+                "admin", "POST", "/api/add-store?id=casbin/store_" + i, "add-store", "{\"name\":\"store_" + i + "\"}",
+                "en", "", "{\"status\":\"ok\",\"msg\":\"\"}", true, "", "", "", "Mozilla/5.0", false);
+    }
+
+    static Record[] records(int count) {
+        Record[] records = new Record[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = record(i);
+            records[i].id = i + 1;
+        }
+        return records;
+    }
+
+    /**
+     * Builds a store whose file tree has the given depth, every folder holding {@code fanOut} sub-folders and files.
+     */
+    static Store store(String name, int depth, int fanOut) {
+        Store store = new Store();
+        store.owner = "casbin";
+        store.name = name;
+        store.createdTime = "2025-01-01T00:00:00+08:00";
+        store.displayName = "Store " + name;
+        store.storageProvider = "provider-storage";
+        store.modelProvider = "provider-model";
+        store.embeddingProvider = "provider-embedding";
+        store.modelProviders = Arrays.asList("provider-model", "provider-model-2");
+        store.welcome = "Hello";
+        store.prompt = "You are an expert in your field and you specialize in using your knowledge to answer questions.";
+        store.prompts = Collections.singletonList(new Prompt("Intro", "Tell me about Casibase", ""));
+        store.fileTree = folder("", "/", depth, fanOut);
+        store.propertiesMap = new HashMap<>();
+        store.propertiesMap.put("/readme.md", new Properties("2025-01-01T00:00:00+08:00", "readme"));
+        return store;
+    }
+
+    private static File folder(String key, String title, int depth, int fanOut) {
+        List<File> children = new ArrayList<>();
+        for (int i = 0; i < fanOut; i++) {
+            children.add(new File(key + "/file_" + i + ".txt", "file_" + i + ".txt", 1024L * i,
+                    "2025-01-01T00:00:00+08:00", true, "https://cdn.casibase.com" + key + "/file_" + i + ".txt", null, null));
+            if (depth > 1) {
+                children.add(folder(key + "/dir_" + i, "dir_" + i, depth - 1, fanOut));
+            }
+        }
+        return new File(key, title, 0, "2025-01-01T00:00:00+08:00", false, "", children, null);
+    }
+
+    static byte[] okResponse(ObjectMapper mapper, Object data, Object data2) throws IOException {
+        CasibaseResponse<Object, Object> response = new CasibaseResponse<>();
+        response.setStatus("ok");
+        response.setMsg("");
+        response.setData(data);
+        response.setData2(data2);
+        return mapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building multipart bodies with {@link Util#createForm} and {@link Util#createFormFile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int fileSize;
+
+    private Map<String, String> form;
+    private Map<String, byte[]> files;
+
+    @Setup
+    public void setUp() {
+        form = new HashMap<>();
+        form.put("owner", "casbin");
+        form.put("name", "store_123456");
+        form.put("prompt", "You are an expert in your field and you specialize in using your knowledge to answer questions.");
+
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        files = new HashMap<>();
+        files.put("file", content);
+    }
+
+    @Benchmark
+    public Util.MultipartFormData createForm() throws IOException {
+        return Util.createForm(form);
+    }
+
+    @Benchmark
+    public Util.MultipartFormData createFormFile() throws IOException {
+        return Util.createFormFile(files);
+    }
+}
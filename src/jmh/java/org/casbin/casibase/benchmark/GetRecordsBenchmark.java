@@ -0,0 +1,86 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of listing records through {@link CasibaseClient} against the in-process {@link CasibaseStandInServer},
+ * covering URL building, the OkHttp round-trip and decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetRecordsBenchmark {
+
+    @Param({"1000", "10000"})
+    public int records;
+
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.seedRecords(Arrays.asList(Fixtures.records(records)));
+        client = new CasibaseClient(server.config());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public List<Record> getRecords() throws IOException {
+        return client.records().getRecords();
+    }
+
+    @Benchmark
+    public long streamRecords() {
+        return client.records().streamRecords(500).count();
+    }
+
+    @Benchmark
+    public long streamRecordsParallel() {
+        return client.records().streamRecords(500, 4, false).count();
+    }
+}
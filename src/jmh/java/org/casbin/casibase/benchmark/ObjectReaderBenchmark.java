@@ -0,0 +1,105 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of decoding get-record and add-record responses with a fresh {@link TypeReference} passed to
+ * {@link ObjectMapper#readValue}, as the services used to do, versus a precomputed {@link ObjectReader}.
+ * The add-record benchmarks also serialize the payload, with the mapper or with a precomputed {@link ObjectWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectReaderBenchmark {
+
+    private ObjectMapper mapper;
+    private ObjectReader recordReader;
+    private ObjectReader modifyReader;
+    private ObjectWriter recordWriter;
+
+    private Record record;
+    private byte[] getRecordResponse;
+    private byte[] addRecordResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Fixtures.newObjectMapper();
+        recordReader = mapper.readerFor(new TypeReference<CasibaseResponse<Record, Object>>() {
+        });
+        modifyReader = mapper.readerFor(new TypeReference<CasibaseResponse<Object, Object>>() {
+        });
+        recordWriter = mapper.writerFor(Record.class);
+
+        record = Fixtures.record(1);
+        getRecordResponse = Fixtures.okResponse(mapper, record, null);
+        addRecordResponse = Fixtures.okResponse(mapper, "Affected", null);
+    }
+
+    @Benchmark
+    public CasibaseResponse<Record, Object> getRecordTypeReference() throws IOException {
+        return mapper.readValue(new ByteArrayInputStream(getRecordResponse), new TypeReference<CasibaseResponse<Record, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public CasibaseResponse<Record, Object> getRecordObjectReader() throws IOException {
+        return recordReader.readValue(new ByteArrayInputStream(getRecordResponse));
+    }
+
+    @Benchmark
+    public CasibaseResponse<Object, Object> addRecordTypeReference() throws IOException {
+        String payload = mapper.writeValueAsString(record);
+        if (payload.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return mapper.readValue(new ByteArrayInputStream(addRecordResponse), new TypeReference<CasibaseResponse<Object, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public CasibaseResponse<Object, Object> addRecordObjectReader() throws IOException {
+        String payload = recordWriter.writeValueAsString(record);
+        if (payload.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return modifyReader.readValue(new ByteArrayInputStream(addRecordResponse));
+    }
+}
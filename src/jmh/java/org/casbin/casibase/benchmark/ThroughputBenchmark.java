@@ -0,0 +1,106 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.config.Config;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency distribution and throughput of single-object calls against the {@link CasibaseStandInServer} with a
+ * configurable server-side latency. Run in sample mode, JMH reports p50/p99/p999 for each operation; the async
+ * benchmark keeps {@code batch} requests in flight from each thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+public class ThroughputBenchmark {
+
+    @Param({"0", "5"})
+    public int latencyMillis;
+
+    @Param({"16"})
+    public int batch;
+
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.latency(null, Duration.ofMillis(latencyMillis));
+        server.seedRecords(Collections.singletonList(Fixtures.record(0)));
+        Config config = server.config();
+        config.maxRequests = 256;
+        config.maxRequestsPerHost = 256;
+        config.maxIdleConnections = 256;
+        client = new CasibaseClient(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Record getRecord() throws IOException {
+        return client.records().getRecord("record_0");
+    }
+
+    @Benchmark
+    public CasibaseResponse<String, Object> addRecord() throws IOException {
+        return client.records().addRecord(Fixtures.record((int) sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Object getRecordAsyncBatch() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batch];
+        for (int i = 0; i < batch; i++) {
+            futures[i] = client.records().getRecordAsync("record_0");
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
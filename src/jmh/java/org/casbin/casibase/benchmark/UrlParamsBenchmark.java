@@ -0,0 +1,66 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building query strings with {@link Map#mapToUrlParams}, from the single "id" parameter of get-record
+ * to a pagination query with sorting and filtering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlParamsBenchmark {
+
+    @Param({"1", "4", "8"})
+    public int parameters;
+
+    private java.util.Map<String, String> params;
+
+    @Setup
+    public void setUp() {
+        String[] keys = {"id", "owner", "p", "pageSize", "field", "value", "sortField", "sortOrder"};
+        String[] values = {"casbin/record_123456", "casbin", "12", "100", "action", "add-record", "createdTime", "descend"};
+        params = new HashMap<>();
+        for (int i = 0; i < parameters; i++) {
+            params.put(keys[i], values[i]);
+        }
+    }
+
+    @Benchmark
+    public String mapToUrlParams() {
+        return Map.mapToUrlParams(params);
+    }
+}
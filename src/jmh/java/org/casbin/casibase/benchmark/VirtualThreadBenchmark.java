@@ -0,0 +1,104 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.benchmark;
+
+import org.casbin.casibase.config.Config;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.FanOut;
+import org.casbin.casibase.util.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans out {@code calls} blocking {@code getRecord} calls at once with {@link FanOut}, on a fixed pool of platform
+ * threads or on one virtual thread per call. With a server-side latency the platform pool runs the calls in waves of
+ * {@code poolSize}, while virtual threads keep them all in flight. On JDKs before 21 the virtual variant falls back
+ * to a cached pool of platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"0", "20"})
+    public int latencyMillis;
+
+    @Param({"1000"})
+    public int calls;
+
+    @Param({"64"})
+    public int poolSize;
+
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+    private ExecutorService executor;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.latency(null, Duration.ofMillis(latencyMillis));
+        server.seedRecords(Collections.singletonList(Fixtures.record(0)));
+        Config config = server.config();
+        config.maxIdleConnections = calls;
+        client = new CasibaseClient(config);
+        executor = "virtual".equals(threads)
+                ? VirtualThreads.newExecutor("benchmark")
+                : Executors.newFixedThreadPool(poolSize);
+        names = new ArrayList<>(Collections.nCopies(calls, "record_0"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public List<Record> fanOutGetRecord() throws IOException {
+        return FanOut.map(executor, names, client.records()::getRecord);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.balancer;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.casbin.casibase.resilience.CircuitBreaker;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One replica of a Casibase server, with the load and the health a client has observed on it.
+ * <p>
+ * Health is tracked passively from the outcome of calls: after a number of consecutive failures (connection errors,
+ * timeouts and 5xx answers) the endpoint is ejected, and only used when no healthy endpoint is left. Once the ejection
+ * time is over it is tried again; a success readmits it, while a further failure ejects it again at once.
+ * <p>
+ * Latency is tracked as a peak-sensitive moving average: a slower call raises it immediately, faster ones lower it
+ * gradually, with a decay time of {@value #DECAY_MILLIS} ms.
+ */
+public class Endpoint {
+    static final long DECAY_MILLIS = 10_000;
+
+    private static final long DECAY_NANOS = DECAY_MILLIS * 1_000_000;
+
+    private final String url;
+    private final int ejectAfter;
+    private final long ejectionNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean ejected;
+    private volatile long ejectedAtNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double latencyNanos;
+    private long lastObservedNanos;
+
+    Endpoint(String url, int ejectAfter, long ejectionNanos) {
+        this.url = url;
+        this.ejectAfter = ejectAfter;
+        this.ejectionNanos = ejectionNanos;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The number of calls in flight to this endpoint.
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return The moving average of the latency of calls to this endpoint, or 0 before the first call completes.
+     */
+    public double getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * @return Whether the endpoint is not ejected, or its ejection time is over.
+     */
+    public boolean isHealthy() {
+        return !ejected || System.nanoTime() - ejectedAtNanos >= ejectionNanos;
+    }
+
+    /**
+     * Points a request built against {@code base} at this endpoint. The part of its path below the path of the base,
+     * its query and its headers are kept.
+     *
+     * @param request The request.
+     * @param base The endpoint the request was built against.
+     * @return The request for this endpoint.
+     */
+    public Request route(Request request, String base) {
+        if (url.equals(base)) {
+            return request;
+        }
+        HttpUrl original = request.url();
+        String fromPath = trimTrailingSlash(HttpUrl.get(base).encodedPath());
+        String path = original.encodedPath();
+        if (!path.startsWith(fromPath)) {
+            throw new IllegalArgumentException(original + " is not below " + base);
+        }
+        HttpUrl target = HttpUrl.get(url);
+        HttpUrl routed = target.newBuilder()
+                .encodedPath(trimTrailingSlash(target.encodedPath()) + path.substring(fromPath.length()))
+                .encodedQuery(original.encodedQuery())
+                .build();
+        return request.newBuilder().url(routed).build();
+    }
+
+    /**
+     * Records that a call to this endpoint was sent. Every call must be followed by {@link #onComplete(long, Throwable)}
+     * or {@link #release()}.
+     */
+    public void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records the outcome of a call sent to this endpoint.
+     *
+     * @param durationNanos The time from sending the call until it completed.
+     * @param error The failure of the call, or null if it succeeded.
+     */
+    public void onComplete(long durationNanos, @Nullable Throwable error) {
+        outstanding.decrementAndGet();
+        if (error != null && CircuitBreaker.isEndpointFailure(error)) {
+            if (consecutiveFailures.incrementAndGet() >= ejectAfter) {
+                ejectedAtNanos = System.nanoTime();
+                ejected = true;
+            }
+        } else {
+            consecutiveFailures.set(0);
+            ejected = false;
+        }
+        observe(durationNanos);
+    }
+
+    /**
+     * Records that a call sent to this endpoint was cancelled, which says nothing about the endpoint.
+     */
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    private void observe(long durationNanos) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            double latency = latencyNanos;
+            if (durationNanos >= latency) {
+                latencyNanos = durationNanos;
+            } else {
+                double weight = Math.exp(-(now - lastObservedNanos) / (double) DECAY_NANOS);
+                latencyNanos = latency * weight + durationNanos * (1 - weight);
+            }
+            lastObservedNanos = now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String trimTrailingSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.balancer;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The replicas of a Casibase server a client spreads its calls over.
+ * <p>
+ * Each attempt goes to an endpoint chosen by the {@link LoadBalancer} among the best candidates: healthy endpoints the
+ * call has not failed on yet, then healthy ones it has failed on, then ejected ones. A failed attempt is thus retried
+ * on another replica whenever there is one.
+ */
+public class EndpointGroup {
+    private final List<Endpoint> endpoints;
+    private final LoadBalancer balancer;
+
+    /**
+     * @param urls The base URLs of the replicas, e.g. {@code https://casibase-1.example.com}.
+     * @param balancer The strategy choosing among them.
+     * @param ejectAfter The number of consecutive failures after which an endpoint is ejected.
+     * @param ejection How long an endpoint stays ejected.
+     */
+    public EndpointGroup(List<String> urls, LoadBalancer balancer, int ejectAfter, Duration ejection) {
+        if (urls.isEmpty() || ejectAfter < 1 || ejection.isNegative()) {
+            throw new IllegalArgumentException("Invalid endpoint group");
+        }
+        List<Endpoint> endpoints = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            endpoints.add(new Endpoint(url, ejectAfter, ejection.toNanos()));
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.balancer = balancer;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Chooses the endpoint of an attempt.
+     *
+     * @param excluded The endpoints that must not be chosen.
+     * @param failed The endpoints the call already failed on, only chosen when no other healthy endpoint is left.
+     * @return The endpoint, or null if every endpoint is excluded.
+     */
+    @Nullable
+    public Endpoint select(Collection<Endpoint> excluded, Collection<Endpoint> failed) {
+        if (endpoints.size() == 1) {
+            Endpoint endpoint = endpoints.get(0);
+            return excluded.contains(endpoint) ? null : endpoint;
+        }
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        int bestRank = Integer.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (excluded.contains(endpoint)) {
+                continue;
+            }
+            int rank = (endpoint.isHealthy() ? 0 : 2) + (failed.contains(endpoint) ? 1 : 0);
+            if (rank < bestRank) {
+                candidates.clear();
+                bestRank = rank;
+            }
+            if (rank == bestRank) {
+                candidates.add(endpoint);
+            }
+        }
+        return candidates.isEmpty() ? null : balancer.choose(candidates);
+    }
+
+    /**
+     * @return Whether a healthy endpoint outside the given ones is left, which a failed call can move on to at once.
+     */
+    public boolean hasHealthyEndpointBesides(Collection<Endpoint> failed) {
+        for (Endpoint endpoint : endpoints) {
+            if (!failed.contains(endpoint) && endpoint.isHealthy()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
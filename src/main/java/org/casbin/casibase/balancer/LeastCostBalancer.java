@@ -0,0 +1,51 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.balancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Chooses the candidate of lowest cost. The scan starts at a rotating offset, so ties are spread evenly instead of
+ * always going to the first endpoint.
+ */
+class LeastCostBalancer implements LoadBalancer {
+    private final ToDoubleFunction<Endpoint> cost;
+    private final AtomicInteger offset = new AtomicInteger();
+
+    LeastCostBalancer(ToDoubleFunction<Endpoint> cost) {
+        this.cost = cost;
+    }
+
+    @Override
+    public Endpoint choose(List<Endpoint> candidates) {
+        int size = candidates.size();
+        int start = Math.floorMod(offset.getAndIncrement(), size);
+        Endpoint best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = candidates.get((start + i) % size);
+            double candidateCost = cost.applyAsDouble(candidate);
+            if (best == null || candidateCost < bestCost) {
+                best = candidate;
+                bestCost = candidateCost;
+            }
+        }
+        return best;
+    }
+}
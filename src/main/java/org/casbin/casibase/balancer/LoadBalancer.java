@@ -0,0 +1,54 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.balancer;
+
+import java.util.List;
+
+/**
+ * Strategy choosing the endpoint of each attempt among the replicas of a server.
+ */
+@FunctionalInterface
+public interface LoadBalancer {
+    /**
+     * @param candidates The endpoints to choose from, never empty, in the order they were configured. Ejected
+     *                   endpoints, and those that already failed the call, are only offered when nothing better is left.
+     * @return One of the candidates.
+     */
+    Endpoint choose(List<Endpoint> candidates);
+
+    /**
+     * @return A balancer that takes the candidates in turn.
+     */
+    static LoadBalancer roundRobin() {
+        return new RoundRobinBalancer();
+    }
+
+    /**
+     * @return A balancer that chooses the candidate with the fewest calls in flight.
+     */
+    static LoadBalancer leastOutstanding() {
+        return new LeastCostBalancer(Endpoint::getOutstanding);
+    }
+
+    /**
+     * @return A balancer that chooses the candidate with the lowest average latency, weighted by its calls in flight,
+     *         so that a fast endpoint is not flooded until it slows down.
+     */
+    static LoadBalancer ewma() {
+        return new LeastCostBalancer(endpoint -> (endpoint.getLatencyNanos() + 1) * (endpoint.getOutstanding() + 1));
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.casbin.casibase.config;
 
+import java.time.Duration;
+
 public class Config {
     public String endpoint;
     public String clientId;
@@ -23,6 +25,32 @@ public class Config {
     public String organizationName;
     public String applicationName;
 
+    /*
+     * Connection settings, applied to the http client a CasibaseClient creates for itself. They are ignored by
+     * services created directly from a Config, which share the static client of HttpClient, and by clients given
+     * their own OkHttpClient. The defaults are those of OkHttp.
+     */
+
+    /** Maximum number of idle connections kept in the pool. */
+    public int maxIdleConnections = 5;
+    /** How long an idle connection is kept in the pool. */
+    public Duration keepAlive = Duration.ofMinutes(5);
+    public Duration connectTimeout = Duration.ofSeconds(10);
+    public Duration readTimeout = Duration.ofSeconds(10);
+    public Duration writeTimeout = Duration.ofSeconds(10);
+    /** Limit on a whole call, from resolving DNS to reading the body; zero means none. */
+    public Duration callTimeout = Duration.ZERO;
+    /** Maximum number of concurrent async requests. */
+    public int maxRequests = 64;
+    /**
+     * Maximum number of concurrent async requests to the same host. A client also decodes at most this many responses
+     * per endpoint at once on its decoder threads, and any further response on the dispatcher thread that received it,
+     * so that no more than twice this many responses per endpoint are open at once.
+     */
+    public int maxRequestsPerHost = 5;
+    /** Whether HTTP/2 is negotiated with servers that support it; when false, only HTTP/1.1 is used. */
+    public boolean http2 = true;
+
     public Config(String endpoint, String clientId, String clientSecret, String organizationName, String applicationName) {
         this.endpoint = endpoint;
         this.clientId = clientId;
@@ -0,0 +1,217 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+import org.casbin.casibase.util.CountingInputStream;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-operation request counts, error counts, bytes on the wire and latency histograms of a
+ * {@link org.casbin.casibase.service.CasibaseClient}.
+ * <p>
+ * Operations are named after the API action, e.g. {@code get-records} or {@code add-record}. The current state can be
+ * read at any time with {@link #snapshot()}, and every completed call is also pushed to the registered
+ * {@link MetricsListener}s. Recording only touches atomic counters, so it stays on for every call.
+ */
+public class CasibaseMetrics {
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, OperationSnapshot> copy = new HashMap<>();
+        operations.forEach((name, metrics) -> copy.put(name, metrics.snapshot(name)));
+        return new MetricsSnapshot(System.nanoTime(), copy);
+    }
+
+    /**
+     * Starts timing one call.
+     *
+     * @param operation The operation name.
+     * @return The sample to complete once the call finishes.
+     */
+    public Sample start(String operation) {
+        return new Sample(operation, System.nanoTime());
+    }
+
+    /**
+     * @return The latency of the HTTP exchanges of an operation, or null if it was never called.
+     */
+    @Nullable
+    public HistogramSnapshot getHttpLatency(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        return metrics != null ? metrics.httpLatency.snapshot() : null;
+    }
+
+    private OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        return metrics != null ? metrics : operations.computeIfAbsent(name, key -> new OperationMetrics());
+    }
+
+    /**
+     * Timing of one call in progress. A call is made of one or more attempts, i.e. HTTP exchanges, which may overlap.
+     * The SDK marks when the response of an attempt arrives, counts the body bytes while they are decoded and
+     * completes the sample exactly once, naming the attempt that produced the outcome.
+     */
+    public class Sample {
+        private final String operation;
+        private final long startNanos;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger hedges = new AtomicInteger();
+        private final AtomicLong bytesSent = new AtomicLong();
+        private final AtomicLong bytesReceived = new AtomicLong();
+
+        private Sample(String operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Starts timing one attempt of the call.
+         *
+         * @param bytesSent The size of the request body, or 0 when there is none or it is unknown.
+         */
+        public Attempt attempt(long bytesSent) {
+            attempts.incrementAndGet();
+            this.bytesSent.addAndGet(Math.max(0, bytesSent));
+            return new Attempt(System.nanoTime());
+        }
+
+        /**
+         * Starts timing a hedged attempt, sent while an earlier attempt of the call is still in flight.
+         *
+         * @param bytesSent The size of the request body, or 0 when there is none or it is unknown.
+         */
+        public Attempt hedge(long bytesSent) {
+            hedges.incrementAndGet();
+            this.bytesSent.addAndGet(Math.max(0, bytesSent));
+            return new Attempt(System.nanoTime());
+        }
+
+        public int getAttempts() {
+            return attempts.get();
+        }
+
+        public void success(Attempt attempt) {
+            complete(attempt, null);
+        }
+
+        /**
+         * @param error The failure of the call.
+         * @param attempt The last attempt, or null if the call failed before any attempt was made.
+         */
+        public void failure(Throwable error, @Nullable Attempt attempt) {
+            complete(attempt, error);
+        }
+
+        private void complete(@Nullable Attempt attempt, @Nullable Throwable error) {
+            long endNanos = System.nanoTime();
+            long latency = endNanos - startNanos;
+            long response = attempt != null ? attempt.responseNanos : Attempt.NO_RESPONSE;
+            long http = response == Attempt.NO_RESPONSE ? -1 : response - attempt.startNanos;
+            long decode = response == Attempt.NO_RESPONSE ? -1 : endNanos - response;
+            int attempts = this.attempts.get();
+            long bytesSent = this.bytesSent.get();
+            long bytesReceived = this.bytesReceived.get();
+
+            OperationMetrics metrics = operation(operation);
+            metrics.requests.increment();
+            if (error != null) {
+                metrics.errors.increment();
+            }
+            if (attempts > 1) {
+                metrics.retries.add(attempts - 1);
+            }
+            int hedges = this.hedges.get();
+            if (hedges > 0) {
+                metrics.hedges.add(hedges);
+            }
+            metrics.bytesSent.add(bytesSent);
+            metrics.bytesReceived.add(bytesReceived);
+            metrics.latency.record(latency);
+            if (response != Attempt.NO_RESPONSE) {
+                metrics.httpLatency.record(http);
+                metrics.decodeLatency.record(decode);
+            }
+
+            if (!listeners.isEmpty()) {
+                RequestEvent event = new RequestEvent(operation, latency, http, decode, bytesSent, bytesReceived, attempts, error);
+                for (MetricsListener listener : listeners) {
+                    try {
+                        listener.onRequest(event);
+                    } catch (RuntimeException ignored) {
+                        // a broken listener must not fail the call it observes
+                    }
+                }
+            }
+        }
+
+        /**
+         * One HTTP exchange of the call.
+         */
+        public class Attempt {
+            private static final long NO_RESPONSE = Long.MIN_VALUE;
+
+            private final long startNanos;
+            private volatile long responseNanos = NO_RESPONSE;
+
+            private Attempt(long startNanos) {
+                this.startNanos = startNanos;
+            }
+
+            /**
+             * Marks the arrival of the response headers; what follows is accounted as decoding.
+             */
+            public void responseReceived() {
+                responseNanos = System.nanoTime();
+            }
+
+            public boolean hasResponse() {
+                return responseNanos != NO_RESPONSE;
+            }
+
+            /**
+             * Wraps a response body stream so the bytes read from it are counted as received.
+             */
+            public InputStream countReceived(InputStream body) {
+                return new CountingInputStream(body) {
+                    @Override
+                    protected void counted(long n) {
+                        bytesReceived.addAndGet(n);
+                    }
+                };
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+/**
+ * Receives every completed call, so metrics can be forwarded to Micrometer, Dropwizard, OpenTelemetry or any other
+ * library without the SDK depending on it.
+ * <p>
+ * Listeners run on the thread that completed the call, which for async calls is a decoder thread.
+ * They must be quick and must not block; exceptions they throw are ignored.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+    void onRequest(RequestEvent event);
+}
@@ -0,0 +1,82 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time copy of the metrics of every operation a client has performed. Counters are cumulative, so throughput
+ * over an interval is obtained by comparing two snapshots with {@link #throughputSince(MetricsSnapshot, String)}.
+ */
+public class MetricsSnapshot {
+    private final long capturedAtNanos;
+    private final Map<String, OperationSnapshot> operations;
+
+    MetricsSnapshot(long capturedAtNanos, Map<String, OperationSnapshot> operations) {
+        this.capturedAtNanos = capturedAtNanos;
+        this.operations = Collections.unmodifiableMap(new TreeMap<>(operations));
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the snapshot was taken.
+     */
+    public long getCapturedAtNanos() {
+        return capturedAtNanos;
+    }
+
+    /**
+     * @return The operations performed so far, keyed and sorted by name.
+     */
+    public Map<String, OperationSnapshot> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return The metrics of the given operation, or null if it was never performed.
+     */
+    public OperationSnapshot getOperation(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * @param earlier A snapshot of the same metrics taken before this one.
+     * @param operation The operation name.
+     * @return The requests per second of the operation between the two snapshots.
+     */
+    public double throughputSince(MetricsSnapshot earlier, String operation) {
+        long elapsed = capturedAtNanos - earlier.capturedAtNanos;
+        if (elapsed <= 0) {
+            return 0;
+        }
+        OperationSnapshot now = operations.get(operation);
+        OperationSnapshot before = earlier.operations.get(operation);
+        long requests = (now == null ? 0 : now.getRequests()) - (before == null ? 0 : before.getRequests());
+        return requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (OperationSnapshot operation : operations.values()) {
+            builder.append(operation).append('\n');
+        }
+        return builder.toString();
+    }
+}
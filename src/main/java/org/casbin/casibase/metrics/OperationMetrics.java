@@ -0,0 +1,39 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters and histograms of one operation, e.g. {@code get-records}.
+ */
+class OperationMetrics {
+    final LongAdder requests = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder hedges = new LongAdder();
+    final LongAdder bytesSent = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LatencyHistogram httpLatency = new LatencyHistogram();
+    final LatencyHistogram decodeLatency = new LatencyHistogram();
+
+    OperationSnapshot snapshot(String operation) {
+        return new OperationSnapshot(operation, requests.sum(), errors.sum(), retries.sum(), hedges.sum(), bytesSent.sum(), bytesReceived.sum(),
+                latency.snapshot(), httpLatency.snapshot(), decodeLatency.snapshot());
+    }
+}
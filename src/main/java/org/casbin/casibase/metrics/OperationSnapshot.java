@@ -0,0 +1,103 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+/**
+ * Metrics of one operation at the time a {@link MetricsSnapshot} was taken.
+ * <p>
+ * {@link #getLatency()} covers the whole call. It is split into {@link #getHttpLatency()}, from sending the request
+ * until the response headers arrive, and {@link #getDecodeLatency()}, from there until the body is decoded, which
+ * includes reading the body off the socket.
+ */
+public class OperationSnapshot {
+    private final String operation;
+    private final long requests;
+    private final long errors;
+    private final long retries;
+    private final long hedges;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final HistogramSnapshot latency;
+    private final HistogramSnapshot httpLatency;
+    private final HistogramSnapshot decodeLatency;
+
+    OperationSnapshot(String operation, long requests, long errors, long retries, long hedges, long bytesSent, long bytesReceived,
+                      HistogramSnapshot latency, HistogramSnapshot httpLatency, HistogramSnapshot decodeLatency) {
+        this.operation = operation;
+        this.requests = requests;
+        this.errors = errors;
+        this.retries = retries;
+        this.hedges = hedges;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.latency = latency;
+        this.httpLatency = httpLatency;
+        this.decodeLatency = decodeLatency;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return The number of attempts made beyond the first one of each call, e.g. by retries.
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return The number of hedged attempts, sent while an earlier attempt of the same call was still in flight.
+     */
+    public long getHedges() {
+        return hedges;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    public HistogramSnapshot getHttpLatency() {
+        return httpLatency;
+    }
+
+    public HistogramSnapshot getDecodeLatency() {
+        return decodeLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: requests=%d errors=%d retries=%d sent=%dB received=%dB latency[%s] http[%s] decode[%s]",
+                operation, requests, errors, retries, bytesSent, bytesReceived, latency, httpLatency, decodeLatency);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Describes one completed call, as handed to {@link MetricsListener#onRequest(RequestEvent)}. Durations are in
+ * nanoseconds; the http and decode durations are those of the attempt that produced the outcome, and -1 when it
+ * received no response. Bytes are summed over all attempts.
+ */
+public class RequestEvent {
+    private final String operation;
+    private final long latencyNanos;
+    private final long httpNanos;
+    private final long decodeNanos;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final int attempts;
+    @Nullable
+    private final Throwable error;
+
+    RequestEvent(String operation, long latencyNanos, long httpNanos, long decodeNanos, long bytesSent,
+                 long bytesReceived, int attempts, @Nullable Throwable error) {
+        this.operation = operation;
+        this.latencyNanos = latencyNanos;
+        this.httpNanos = httpNanos;
+        this.decodeNanos = decodeNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.attempts = attempts;
+        this.error = error;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public long getHttpNanos() {
+        return httpNanos;
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return The number of HTTP exchanges made for the call, 1 unless it was retried.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return The failure of the call, or null if it succeeded.
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+class AimdLimit implements LimitAlgorithm {
+    private final int initialLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    AimdLimit(int initialLimit, int maxLimit, double backoffRatio) {
+        if (initialLimit < 1 || maxLimit < initialLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD limit");
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int limit, int inFlight, long rttNanos, boolean dropped) {
+        if (dropped) {
+            return Math.max(1, (int) (limit * backoffRatio));
+        }
+        // growing a limit that is not used would let a later burst through unchecked
+        if (inFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
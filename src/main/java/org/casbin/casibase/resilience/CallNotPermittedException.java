@@ -0,0 +1,38 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting the server when the circuit breaker of its endpoint is open.
+ */
+public class CallNotPermittedException extends IOException {
+    private final String breaker;
+
+    public CallNotPermittedException(CircuitBreaker breaker) {
+        super(String.format("Circuit breaker of %s is %s", breaker.getName(), breaker.getState()));
+        this.breaker = breaker.getName();
+    }
+
+    /**
+     * @return The name of the breaker that rejected the call, i.e. its endpoint.
+     */
+    public String getBreaker() {
+        return breaker;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker of one endpoint.
+ * <p>
+ * While CLOSED, the outcomes of the last calls are kept in a sliding window; once it holds enough calls and the
+ * failure rate or the slow call rate reaches its threshold, the breaker opens. While OPEN, calls are rejected at once
+ * with a {@link CallNotPermittedException} instead of waiting for a server that is down. After the open duration the
+ * breaker turns HALF_OPEN and lets a few trial calls through, whose outcome closes it or opens it again; if they
+ * have not decided within {@code maxWaitInHalfOpen}, the breaker opens again.
+ * <p>
+ * Failures are connection errors, timeouts and 5xx answers. Other errors, such as a 404 or a "status: error" answer,
+ * prove the server is up and count as successes. Granting a call in the closed state is a single volatile read and
+ * recording its outcome a few atomic updates, so the breaker is lock-free on the happy path.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Receives the state transitions of a breaker, on the thread that caused them.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onStateTransition(CircuitBreaker breaker, State from, State to);
+    }
+
+    /**
+     * The right to make one call, to be settled exactly once with {@link #onResult(long, Throwable)} or
+     * {@link #release()}.
+     */
+    public interface Permit {
+        /**
+         * @param durationNanos The duration of the call.
+         * @param error The failure of the call, or null if it succeeded.
+         */
+        void onResult(long durationNanos, @Nullable Throwable error);
+
+        /**
+         * Gives the permit back without an outcome, e.g. because the call was cancelled.
+         */
+        void release();
+    }
+
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final AtomicReference<Phase> phase;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this.name = name;
+        this.config = config;
+        this.phase = new AtomicReference<>(new Phase(State.CLOSED));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * @return The percentage of failed calls in the current window, or -1 if it holds fewer than the minimum calls.
+     */
+    public float getFailureRate() {
+        return phase.get().rate(FAILED);
+    }
+
+    /**
+     * @return The percentage of slow calls in the current window, or -1 if it holds fewer than the minimum calls.
+     */
+    public float getSlowCallRate() {
+        return phase.get().rate(SLOW);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return A permit for one call, or null if the call must be rejected.
+     */
+    @Nullable
+    public Permit tryAcquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.startNanos < config.openDurationNanos) {
+                        return null;
+                    }
+                    transition(current, State.HALF_OPEN);
+                    break;
+                default:
+                    if (current.tryTakePermit()) {
+                        return current;
+                    }
+                    if (System.nanoTime() - current.startNanos < config.maxWaitInHalfOpenNanos) {
+                        return null;
+                    }
+                    // The trial calls never settled, e.g. because their permits leaked: start over.
+                    transition(current, State.OPEN);
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * Forces the breaker into the given state, e.g. to open it during maintenance.
+     */
+    public void transitionTo(State state) {
+        Phase current = phase.get();
+        if (current.state != state) {
+            transition(current, state);
+        }
+    }
+
+    /**
+     * Decides whether an error counts against the endpoint.
+     */
+    protected boolean isFailure(Throwable error) {
+        return isEndpointFailure(error);
+    }
+
+    /**
+     * @return Whether an error is a sign of a failing endpoint: a connection error, a timeout or a 5xx answer.
+     */
+    public static boolean isEndpointFailure(Throwable error) {
+        if (error instanceof HttpStatusException) {
+            return ((HttpStatusException) error).getCode() >= 500;
+        }
+        if (error instanceof SocketTimeoutException) {
+            return true;
+        }
+        if (error instanceof CallNotPermittedException || error instanceof LimitExceededException
+                || error instanceof InterruptedIOException || error instanceof JsonProcessingException) {
+            return false;
+        }
+        return error instanceof IOException && !"Canceled".equals(error.getMessage());
+    }
+
+    private void transition(Phase from, State to) {
+        if (phase.compareAndSet(from, new Phase(to))) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onStateTransition(this, from.state, to);
+                } catch (RuntimeException ignored) {
+                    // a broken listener must not fail the call that caused the transition
+                }
+            }
+        }
+    }
+
+    /**
+     * One stay in a state. Calls are settled against the phase that permitted them, so a call granted before the
+     * breaker opened cannot close it again afterwards.
+     */
+    private class Phase implements Permit {
+        final State state;
+        final long startNanos = System.nanoTime();
+        final AtomicInteger permits;
+        final AtomicIntegerArray outcomes;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger slow = new AtomicInteger();
+
+        Phase(State state) {
+            this.state = state;
+            this.permits = new AtomicInteger(state == State.HALF_OPEN ? config.halfOpenCalls : 0);
+            this.outcomes = new AtomicIntegerArray(state == State.CLOSED ? config.windowSize : config.halfOpenCalls);
+        }
+
+        @Override
+        public void onResult(long durationNanos, @Nullable Throwable error) {
+            if (state == State.OPEN || phase.get() != this) {
+                return;
+            }
+            int outcome = RECORDED;
+            if (error != null && isFailure(error)) {
+                outcome |= FAILED;
+            }
+            if (durationNanos >= config.slowCallDurationNanos) {
+                outcome |= SLOW;
+            }
+
+            long index = calls.getAndIncrement();
+            int previous = outcomes.getAndSet((int) (index % outcomes.length()), outcome);
+            failed.addAndGet(flag(outcome, FAILED) - flag(previous, FAILED));
+            slow.addAndGet(flag(outcome, SLOW) - flag(previous, SLOW));
+
+            if (state == State.CLOSED) {
+                if (index + 1 >= config.minimumCalls && exceedsThresholds()) {
+                    transition(this, State.OPEN);
+                }
+            } else if (index + 1 >= config.halfOpenCalls) {
+                transition(this, exceedsThresholds() ? State.OPEN : State.CLOSED);
+            }
+        }
+
+        boolean tryTakePermit() {
+            int available;
+            do {
+                available = permits.get();
+                if (available <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(available, available - 1));
+            return true;
+        }
+
+        @Override
+        public void release() {
+            if (state == State.HALF_OPEN) {
+                permits.incrementAndGet();
+            }
+        }
+
+        float rate(int flag) {
+            int window = (int) Math.min(calls.get(), outcomes.length());
+            int minimum = state == State.CLOSED ? config.minimumCalls : config.halfOpenCalls;
+            if (window == 0 || window < minimum) {
+                return -1;
+            }
+            return (flag == FAILED ? failed.get() : slow.get()) * 100f / window;
+        }
+
+        private boolean exceedsThresholds() {
+            float failureRate = rate(FAILED);
+            float slowCallRate = rate(SLOW);
+            return failureRate >= config.failureRateThreshold || slowCallRate >= config.slowCallRateThreshold;
+        }
+
+        private int flag(int outcome, int flag) {
+            return (outcome & flag) != 0 ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import java.time.Duration;
+
+/**
+ * Settings shared by the circuit breakers a client creates for each of its endpoints.
+ */
+public class CircuitBreakerConfig {
+    final int windowSize;
+    final int minimumCalls;
+    final float failureRateThreshold;
+    final float slowCallRateThreshold;
+    final long slowCallDurationNanos;
+    final long openDurationNanos;
+    final int halfOpenCalls;
+    final long maxWaitInHalfOpenNanos;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDurationNanos = builder.slowCallDuration.toNanos();
+        this.openDurationNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.maxWaitInHalfOpenNanos = builder.maxWaitInHalfOpen.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return A breaker opening for 10s when half of the last 100 calls, and at least 20, failed.
+     */
+    public static CircuitBreakerConfig defaults() {
+        return builder().build();
+    }
+
+    public static class Builder {
+        private int windowSize = 100;
+        private int minimumCalls = 20;
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 100;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+        private Duration maxWaitInHalfOpen = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * @param windowSize The number of most recent calls the rates are computed over.
+         * @param minimumCalls The number of calls needed before the breaker may open.
+         */
+        public Builder window(int windowSize, int minimumCalls) {
+            if (windowSize < 1 || minimumCalls < 1) {
+                throw new IllegalArgumentException("windowSize and minimumCalls must be positive");
+            }
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * @param percentage The percentage of failed calls, from 1 to 100, at which the breaker opens.
+         */
+        public Builder failureRateThreshold(float percentage) {
+            this.failureRateThreshold = percentage;
+            return this;
+        }
+
+        /**
+         * @param percentage The percentage of slow calls, from 1 to 100, at which the breaker opens.
+         * @param slowCallDuration The duration from which a call counts as slow, whether it succeeded or not.
+         */
+        public Builder slowCallRateThreshold(float percentage, Duration slowCallDuration) {
+            this.slowCallRateThreshold = percentage;
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * @param openDuration How long calls are rejected before trial calls are let through.
+         * @param halfOpenCalls The number of trial calls deciding whether the breaker closes or opens again.
+         */
+        public Builder openDuration(Duration openDuration, int halfOpenCalls) {
+            if (halfOpenCalls < 1) {
+                throw new IllegalArgumentException("halfOpenCalls must be positive");
+            }
+            this.openDuration = openDuration;
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * @param maxWaitInHalfOpen How long the trial calls may take to decide. A breaker still half open after this
+         *                          long, with no trial permit left, opens again. Defaults to 30s.
+         */
+        public Builder maxWaitInHalfOpen(Duration maxWaitInHalfOpen) {
+            if (maxWaitInHalfOpen.isNegative() || maxWaitInHalfOpen.isZero()) {
+                throw new IllegalArgumentException("maxWaitInHalfOpen must be positive: " + maxWaitInHalfOpen);
+            }
+            this.maxWaitInHalfOpen = maxWaitInHalfOpen;
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
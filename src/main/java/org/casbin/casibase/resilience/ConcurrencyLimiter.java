@@ -0,0 +1,299 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of calls in flight with a limit that adapts to the server, instead of a fixed pool size that
+ * either underuses the server or overloads it once its latency changes.
+ * <p>
+ * Every call takes a {@link Permit} before its request is sent and reports its round-trip time, or that it was
+ * dropped, when it completes; the {@link LimitAlgorithm} turns these into a new limit. Calls beyond the limit are
+ * rejected with a {@link LimitExceededException}, or, with {@link Overflow#QUEUE}, wait in a bounded FIFO queue until
+ * a call completes. Waiting never blocks a thread unless the caller chooses to wait for the returned future.
+ */
+public class ConcurrencyLimiter {
+    public enum Overflow {
+        /** Calls beyond the limit fail at once. */
+        REJECT,
+        /** Calls beyond the limit wait for a slot, up to the maximum queue size and wait time. */
+        QUEUE
+    }
+
+    /**
+     * The right to send one request. Exactly one of its methods must be called once the call completes.
+     */
+    public interface Permit {
+        void onSuccess(long rttNanos);
+
+        /**
+         * Reports a call that failed in a way that signals overload, which lowers the limit.
+         */
+        void onDropped(long rttNanos);
+
+        /**
+         * Gives the slot back without a sample, e.g. when the call was cancelled.
+         */
+        void release();
+    }
+
+    private final LimitAlgorithm algorithm;
+    private final Overflow overflow;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CompletableFuture<Permit>> queue = new ArrayDeque<>();
+    private int limit;
+    private int inFlight;
+    private final LongAdder rejected = new LongAdder();
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.algorithm = builder.algorithm;
+        this.overflow = builder.overflow;
+        this.maxQueue = builder.maxQueue;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.limit = algorithm.getInitialLimit();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of calls refused so far, because the queue was full or they waited too long.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Asks for a slot.
+     *
+     * @param timer Used to give up waiting after the maximum wait time.
+     * @return A future completed with a permit once a slot is free, or completed exceptionally with a
+     *         {@link LimitExceededException}. Cancelling it gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquire(ScheduledExecutorService timer) {
+        CompletableFuture<Permit> waiter;
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Grant());
+            }
+            if (overflow == Overflow.REJECT || queue.size() >= maxQueue) {
+                rejected.increment();
+                CompletableFuture<Permit> refused = new CompletableFuture<>();
+                refused.completeExceptionally(new LimitExceededException(
+                        String.format("Limit of %d calls in flight reached, %d queued", limit, queue.size())));
+                return refused;
+            }
+            waiter = new CompletableFuture<>();
+            queue.addLast(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        waiter.whenComplete((permit, error) -> {
+            if (error != null) {
+                lock.lock();
+                try {
+                    queue.remove(waiter);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        if (maxWaitNanos > 0) {
+            try {
+                ScheduledFuture<?> timeout = timer.schedule(() -> {
+                    if (waiter.completeExceptionally(new LimitExceededException(
+                            String.format("No call slot freed up within %d ms", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos))))) {
+                        rejected.increment();
+                    }
+                }, maxWaitNanos, TimeUnit.NANOSECONDS);
+                // Served or cancelled waiters must not leave their timeout behind in the timer's queue.
+                waiter.whenComplete((permit, error) -> timeout.cancel(false));
+            } catch (RejectedExecutionException e) {
+                // the client is closing; the waiter is still served by completing calls
+            }
+        }
+        return waiter;
+    }
+
+    /**
+     * Decides whether a failed call signals overload: a timeout, or a 429 or 503 answer.
+     */
+    protected boolean isDropped(Throwable error) {
+        if (error instanceof HttpStatusException) {
+            int code = ((HttpStatusException) error).getCode();
+            return code == 429 || code == 503;
+        }
+        return error instanceof InterruptedIOException && !"Canceled".equals(error.getMessage());
+    }
+
+    /**
+     * Reports the outcome of a call to its permit.
+     *
+     * @param error The failure of the call, or null if it succeeded.
+     */
+    public void onComplete(Permit permit, long rttNanos, @Nullable Throwable error) {
+        if (error != null && isDropped(error)) {
+            permit.onDropped(rttNanos);
+        } else {
+            permit.onSuccess(rttNanos);
+        }
+    }
+
+    private void complete(long rttNanos, @Nullable Boolean dropped) {
+        List<CompletableFuture<Permit>> granted = null;
+        lock.lock();
+        try {
+            if (dropped != null) {
+                limit = Math.max(1, algorithm.update(limit, inFlight, rttNanos, dropped));
+            }
+            inFlight--;
+            while (inFlight < limit && !queue.isEmpty()) {
+                inFlight++;
+                if (granted == null) {
+                    granted = new ArrayList<>(2);
+                }
+                granted.add(queue.pollFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (granted != null) {
+            // waiters are completed outside the lock, since completing one sends its request
+            for (CompletableFuture<Permit> waiter : granted) {
+                Grant grant = new Grant();
+                if (!waiter.complete(grant)) {
+                    grant.release();
+                }
+            }
+        }
+    }
+
+    private class Grant implements Permit {
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void onSuccess(long rttNanos) {
+            if (done.compareAndSet(false, true)) {
+                complete(rttNanos, false);
+            }
+        }
+
+        @Override
+        public void onDropped(long rttNanos) {
+            if (done.compareAndSet(false, true)) {
+                complete(rttNanos, true);
+            }
+        }
+
+        @Override
+        public void release() {
+            if (done.compareAndSet(false, true)) {
+                complete(0, null);
+            }
+        }
+    }
+
+    public static class Builder {
+        private LimitAlgorithm algorithm = LimitAlgorithm.vegas();
+        private Overflow overflow = Overflow.QUEUE;
+        private int maxQueue = 1000;
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        public Builder algorithm(LimitAlgorithm algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Rejects calls beyond the limit at once.
+         */
+        public Builder reject() {
+            this.overflow = Overflow.REJECT;
+            return this;
+        }
+
+        /**
+         * Queues calls beyond the limit. This is the default, with up to 1000 calls waiting up to 5s each.
+         *
+         * @param maxQueue The maximum number of waiting calls; further calls are rejected.
+         * @param maxWait How long a call waits before it is rejected; zero to wait until a slot is free.
+         */
+        public Builder queue(int maxQueue, Duration maxWait) {
+            this.overflow = Overflow.QUEUE;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
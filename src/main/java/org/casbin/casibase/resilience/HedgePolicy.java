@@ -0,0 +1,164 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import org.casbin.casibase.metrics.CasibaseMetrics;
+import org.casbin.casibase.metrics.HistogramSnapshot;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides when a GET that is slow to answer is sent a second time, so that one slow server does not make the call
+ * slow. The first attempt to answer wins and the other is cancelled.
+ * <p>
+ * The hedge delay is either fixed, or a percentile of the operation's HTTP latency: with the 95th percentile, about
+ * one call in twenty is hedged while the server behaves as usual. Each hedge must be paid for from a
+ * {@link RetryBudget} of its own, by default one hedge per ten calls, so that hedging cannot double the load on a
+ * server that is slow for everyone.
+ */
+public class HedgePolicy {
+    /** The number of latencies an operation needs before its percentile is trusted. */
+    static final int MIN_SAMPLES = 20;
+    /** How long a computed percentile is reused before the histogram is read again. */
+    static final long REFRESH_NANOS = 1_000_000_000L;
+
+    private final long delayNanos;
+    private final double quantile;
+    private final int maxHedges;
+    private final RetryBudget budget;
+    private final ConcurrentMap<String, Delay> delays = new ConcurrentHashMap<>();
+
+    private HedgePolicy(Builder builder) {
+        this.delayNanos = builder.delay.toNanos();
+        this.quantile = builder.quantile;
+        this.maxHedges = builder.maxHedges;
+        this.budget = builder.budget != null ? builder.budget : new RetryBudget(0.1, 1, 10);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxHedges() {
+        return maxHedges;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Records a new call in the budget.
+     */
+    public void onCall() {
+        budget.onCall();
+    }
+
+    /**
+     * @return Whether a hedge may be sent, withdrawing it from the budget if so.
+     */
+    public boolean tryHedge() {
+        return budget.tryRetry();
+    }
+
+    /**
+     * @param metrics The metrics of the client making the call.
+     * @param operation The operation name.
+     * @return The time to wait for an answer before hedging a call of the operation.
+     */
+    public long delayNanos(CasibaseMetrics metrics, String operation) {
+        if (quantile < 0) {
+            return delayNanos;
+        }
+        long now = System.nanoTime();
+        Delay delay = delays.get(operation);
+        if (delay == null || now - delay.computedAtNanos >= REFRESH_NANOS) {
+            HistogramSnapshot latency = metrics.getHttpLatency(operation);
+            long nanos = latency == null || latency.getCount() < MIN_SAMPLES ? delayNanos
+                    : Math.max(delayNanos, latency.getValueAtQuantile(quantile));
+            delay = new Delay(nanos, now);
+            delays.put(operation, delay);
+        }
+        return delay.nanos;
+    }
+
+    private static class Delay {
+        final long nanos;
+        final long computedAtNanos;
+
+        Delay(long nanos, long computedAtNanos) {
+            this.nanos = nanos;
+            this.computedAtNanos = computedAtNanos;
+        }
+    }
+
+    public static class Builder {
+        private Duration delay = Duration.ofMillis(100);
+        private double quantile = -1;
+        private int maxHedges = 1;
+        private RetryBudget budget;
+
+        private Builder() {
+        }
+
+        /**
+         * Hedges calls that have not been answered after a fixed delay.
+         */
+        public Builder delay(Duration delay) {
+            this.delay = delay;
+            this.quantile = -1;
+            return this;
+        }
+
+        /**
+         * Hedges calls that have not been answered after the given percentile of the operation's HTTP latency.
+         *
+         * @param quantile The percentile as a fraction, e.g. 0.95.
+         * @param minDelay The lower bound of the delay, also used until the operation has enough latencies recorded.
+         */
+        public Builder quantile(double quantile, Duration minDelay) {
+            if (quantile <= 0 || quantile >= 1) {
+                throw new IllegalArgumentException("quantile must be between 0 and 1");
+            }
+            this.quantile = quantile;
+            this.delay = minDelay;
+            return this;
+        }
+
+        /**
+         * @param maxHedges The maximum number of hedges per call, each sent one delay after the previous attempt.
+         */
+        public Builder maxHedges(int maxHedges) {
+            if (maxHedges < 1) {
+                throw new IllegalArgumentException("maxHedges must be at least 1");
+            }
+            this.maxHedges = maxHedges;
+            return this;
+        }
+
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        public HedgePolicy build() {
+            return new HedgePolicy(this);
+        }
+    }
+}
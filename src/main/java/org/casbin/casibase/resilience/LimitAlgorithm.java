@@ -0,0 +1,65 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+/**
+ * Computes the number of calls a {@link ConcurrencyLimiter} lets into flight from the outcome of completed calls.
+ * Updates are serialized by the limiter, so implementations may keep state without synchronizing.
+ */
+public interface LimitAlgorithm {
+    int getInitialLimit();
+
+    /**
+     * @param limit The current limit.
+     * @param inFlight The number of calls in flight when the call completed, including it.
+     * @param rttNanos The round-trip time of the call.
+     * @param dropped Whether the call failed in a way that signals overload, such as a timeout or a 503.
+     * @return The new limit, at least 1.
+     */
+    int update(int limit, int inFlight, long rttNanos, boolean dropped);
+
+    /**
+     * Additive increase, multiplicative decrease: the limit grows by one for every call completed while the limit was
+     * in use, and is cut by {@code backoffRatio} for every dropped call.
+     */
+    static LimitAlgorithm aimd(int initialLimit, int maxLimit, double backoffRatio) {
+        return new AimdLimit(initialLimit, maxLimit, backoffRatio);
+    }
+
+    /**
+     * @return An AIMD algorithm starting at 20 calls in flight, growing up to 200 and backing off by 10%.
+     */
+    static LimitAlgorithm aimd() {
+        return aimd(20, 200, 0.9);
+    }
+
+    /**
+     * Delay-based, after TCP Vegas: the limit follows the number of calls the server can take without queueing,
+     * estimated from how much the round-trip time exceeds the lowest one observed. It backs off before the server
+     * starts failing, and also cuts the limit on dropped calls.
+     */
+    static LimitAlgorithm vegas(int initialLimit, int maxLimit) {
+        return new VegasLimit(initialLimit, maxLimit);
+    }
+
+    /**
+     * @return A Vegas algorithm starting at 20 calls in flight and growing up to 200.
+     */
+    static LimitAlgorithm vegas() {
+        return vegas(20, 200);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call is refused by the {@link ConcurrencyLimiter} because the limit of calls in flight is reached
+ * and its queue is full, or the call waited in the queue for too long, or by the {@link RateLimits} because its
+ * permits are not available within the maximum wait. The request was not sent.
+ */
+public class LimitExceededException extends IOException {
+    public LimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket admitting {@code permitsPerSecond} calls on average, with bursts of up to {@code burst} calls.
+ * <p>
+ * The bucket is kept as a single timestamp, the theoretical arrival time of the next call (the generic cell rate
+ * algorithm), and updated with compare-and-set, so taking a permit is lock-free and costs a few atomic operations.
+ * Permits can be taken without waiting ({@link #tryAcquire()}), by blocking the calling thread ({@link #acquire()}),
+ * or by waiting on a future ({@link #acquireAsync(ScheduledExecutorService)}). Waiting callers reserve their permit
+ * up front, so they are served in the order they arrived.
+ */
+public class RateLimiter {
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * @param permitsPerSecond The sustained rate.
+     * @param burst The number of calls that may be made at once after a quiet period, at least 1.
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Takes a permit if one is available now.
+     *
+     * @return Whether the permit was taken.
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * Takes a permit, waiting for it if it becomes available within the timeout.
+     *
+     * @return Whether the permit was taken; false without waiting if it would take longer than the timeout.
+     * @throws InterruptedException If the thread is interrupted while waiting; the permit is then lost.
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        long wait = reserve(timeout.toNanos());
+        if (wait < 0) {
+            return false;
+        }
+        TimeUnit.NANOSECONDS.sleep(wait);
+        return true;
+    }
+
+    /**
+     * Takes a permit, blocking until it is available.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting; the permit is then lost.
+     */
+    public void acquire() throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve(Long.MAX_VALUE));
+    }
+
+    /**
+     * Takes a permit without blocking the calling thread. Cancelling the future while it waits gives the permit back
+     * if no caller has reserved one since; otherwise the permit is lost, as later callers were already spaced out
+     * after it.
+     *
+     * @param timer Used to complete the future once the permit is available.
+     * @return A future completed once the permit is available.
+     */
+    public CompletableFuture<Void> acquireAsync(ScheduledExecutorService timer) {
+        long arrival = reserveArrival(Long.MAX_VALUE);
+        long wait = waitFor(arrival);
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        ScheduledFuture<?> available;
+        try {
+            available = timer.schedule(() -> future.complete(null), wait, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            theoreticalArrivalNanos.compareAndSet(arrival, arrival - intervalNanos);
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                available.cancel(false);
+                theoreticalArrivalNanos.compareAndSet(arrival, arrival - intervalNanos);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Reserves the next permit if it is available within the given time.
+     *
+     * @param maxWaitNanos The longest acceptable wait.
+     * @return The time to wait before using the permit, or -1 if none is available in time; nothing is reserved then.
+     */
+    public long reserve(long maxWaitNanos) {
+        long arrival = reserveArrival(maxWaitNanos);
+        return arrival == NONE ? -1 : waitFor(arrival);
+    }
+
+    /**
+     * @return The theoretical arrival time of the call after the reserved one, or {@link #NONE} if no permit is
+     *         available in time.
+     */
+    private long reserveArrival(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrivalNanos.get();
+            long wait = Math.max(0, arrival - toleranceNanos - now);
+            if (wait > maxWaitNanos) {
+                return NONE;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, Math.max(arrival, now) + intervalNanos)) {
+                return Math.max(arrival, now) + intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * @return The time left before the permit reserved by {@link #reserveArrival(long)} can be used.
+     */
+    private long waitFor(long arrival) {
+        return Math.max(0, arrival - intervalNanos - toleranceNanos - System.nanoTime());
+    }
+
+    /**
+     * Gives back a permit that was reserved but not used, e.g. because another limit refused the call.
+     */
+    public void cancelReservation() {
+        theoreticalArrivalNanos.addAndGet(-intervalNanos);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import org.casbin.casibase.util.RecordOperations;
+import org.casbin.casibase.util.StoreOperations;
+import org.casbin.casibase.util.TaskOperations;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Client-side rate limits per operation and per organization, so that bursts are smoothed out before they reach
+ * the server's own throttling, which costs a full round trip to find out about.
+ * <p>
+ * A call of an operation takes a permit from the bucket of its organization and operation, and one from the bucket
+ * shared by all operations of the organization, for each limit that is configured. Buckets are created on first use
+ * and keyed by organization name, so clients of the same organization sharing one {@code RateLimits} also share its
+ * buckets. A call that cannot get its permits within the maximum wait fails with a {@link LimitExceededException}
+ * without being sent; with a maximum wait of zero, calls never wait.
+ */
+public class RateLimits {
+    private final Map<String, Rate> operationRates;
+    @Nullable
+    private final Rate organizationRate;
+    private final long maxWaitNanos;
+    private final ConcurrentMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    private RateLimits(Builder builder) {
+        this.operationRates = new HashMap<>(builder.operationRates);
+        this.organizationRate = builder.organizationRate;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * @return The bucket of an operation of the organization, or null if the operation is not limited.
+     */
+    @Nullable
+    public RateLimiter getLimiter(String organization, String operation) {
+        Rate rate = operationRates.get(operation);
+        return rate == null ? null : limiter(organization + "/" + operation, rate);
+    }
+
+    /**
+     * @return The bucket shared by every operation of the organization, or null if there is no such limit.
+     */
+    @Nullable
+    public RateLimiter getLimiter(String organization) {
+        return organizationRate == null ? null : limiter(organization, organizationRate);
+    }
+
+    /**
+     * Reserves the permits of one call.
+     *
+     * @return The time to wait before sending the call, or -1 if the permits are not available within the maximum
+     *         wait, in which case nothing is reserved.
+     */
+    public long reserve(String organization, String operation) {
+        RateLimiter operationLimiter = getLimiter(organization, operation);
+        long wait = 0;
+        if (operationLimiter != null) {
+            wait = operationLimiter.reserve(maxWaitNanos);
+            if (wait < 0) {
+                return -1;
+            }
+        }
+        RateLimiter organizationLimiter = getLimiter(organization);
+        if (organizationLimiter != null) {
+            long organizationWait = organizationLimiter.reserve(maxWaitNanos);
+            if (organizationWait < 0) {
+                if (operationLimiter != null) {
+                    operationLimiter.cancelReservation();
+                }
+                return -1;
+            }
+            wait = Math.max(wait, organizationWait);
+        }
+        return wait;
+    }
+
+    private RateLimiter limiter(String key, Rate rate) {
+        RateLimiter limiter = limiters.get(key);
+        return limiter != null ? limiter : limiters.computeIfAbsent(key, k -> new RateLimiter(rate.permitsPerSecond, rate.burst));
+    }
+
+    private static class Rate {
+        final double permitsPerSecond;
+        final int burst;
+
+        Rate(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Invalid rate limit");
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Rate> operationRates = new HashMap<>();
+        private Rate organizationRate;
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Limits an operation, e.g. {@code add-record}, per organization.
+         */
+        public Builder operation(String operation, double permitsPerSecond, int burst) {
+            operationRates.put(operation, new Rate(permitsPerSecond, burst));
+            return this;
+        }
+
+        public Builder operation(RecordOperations operation, double permitsPerSecond, int burst) {
+            return operation(operation.getOperation(), permitsPerSecond, burst);
+        }
+
+        public Builder operation(TaskOperations operation, double permitsPerSecond, int burst) {
+            return operation(operation.getOperation(), permitsPerSecond, burst);
+        }
+
+        public Builder operation(StoreOperations operation, double permitsPerSecond, int burst) {
+            return operation(operation.getOperation(), permitsPerSecond, burst);
+        }
+
+        /**
+         * Limits all operations of an organization together.
+         */
+        public Builder organization(double permitsPerSecond, int burst) {
+            this.organizationRate = new Rate(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * @param maxWait How long a call may wait for its permits, 5s by default; zero to fail calls that would wait.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public RateLimits build() {
+            return new RateLimits(this);
+        }
+    }
+}
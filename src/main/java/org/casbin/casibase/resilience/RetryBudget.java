@@ -0,0 +1,129 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps retries relative to regular traffic, so retries cannot multiply the load on a server that
+ * is already failing.
+ * <p>
+ * Every call deposits {@code retryRatio} tokens and every retry withdraws one, so in steady state at most that
+ * fraction of calls is retried. A trickle of {@code minRetriesPerSecond} tokens is added over time so that
+ * low-traffic clients can still retry. The bucket holds at most {@code maxTokens}. All operations are lock-free.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long refillPerSecond;
+    private final long capacity;
+    // Idle time beyond this fills the bucket anyway; capping it keeps the refill arithmetic from overflowing.
+    private final long fillNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong tokens;
+    private final AtomicLong lastRefillNanos;
+
+    /**
+     * @param retryRatio The tokens deposited per call, e.g. 0.2 to allow one retry every five calls.
+     * @param minRetriesPerSecond The tokens added per second regardless of traffic.
+     * @param maxTokens The capacity of the bucket, which is also its initial content.
+     */
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, int maxTokens) {
+        this(retryRatio, minRetriesPerSecond, maxTokens, System::nanoTime);
+    }
+
+    /**
+     * @param retryRatio The tokens deposited per call, e.g. 0.2 to allow one retry every five calls.
+     * @param minRetriesPerSecond The tokens added per second regardless of traffic.
+     * @param maxTokens The capacity of the bucket, which is also its initial content.
+     * @param nanoClock The time source for the refill, read like {@link System#nanoTime()}.
+     */
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, int maxTokens, LongSupplier nanoClock) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || maxTokens < 1) {
+            throw new IllegalArgumentException("Invalid retry budget");
+        }
+        this.deposit = Math.round(retryRatio * SCALE);
+        this.refillPerSecond = Math.round(minRetriesPerSecond * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.fillNanos = refillPerSecond == 0 ? 0 : Math.min(
+                (long) Math.ceil(capacity * (double) TimeUnit.SECONDS.toNanos(1) / refillPerSecond),
+                Long.MAX_VALUE / refillPerSecond);
+        this.nanoClock = nanoClock;
+        this.tokens = new AtomicLong(capacity);
+        this.lastRefillNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return A budget allowing one retry every five calls plus ten per second, with a burst of 100.
+     */
+    public static RetryBudget defaults() {
+        return new RetryBudget(0.2, 10, 100);
+    }
+
+    /**
+     * Records a call, earning a fraction of a retry.
+     */
+    public void onCall() {
+        add(deposit);
+    }
+
+    /**
+     * Withdraws the token needed for one retry.
+     *
+     * @return Whether the retry may be made.
+     */
+    public boolean tryRetry() {
+        refill();
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return The number of retries currently available.
+     */
+    public double getAvailable() {
+        refill();
+        return tokens.get() / (double) SCALE;
+    }
+
+    private void refill() {
+        if (refillPerSecond == 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long last = lastRefillNanos.get();
+        long earned = Math.min(now - last, fillNanos) * refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        if (earned > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            add(earned);
+        }
+    }
+
+    private void add(long amount) {
+        if (amount > 0) {
+            tokens.accumulateAndGet(amount, (current, delta) -> Math.min(capacity, current + delta));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether and when a failed call is attempted again.
+ * <p>
+ * Transient failures are retried: connection failures and resets, socket timeouts, and the HTTP statuses 408, 429,
+ * 500, 502, 503 and 504. Malformed responses, "status: error" answers, cancellations, call timeouts and calls
+ * rejected by an open circuit breaker or the concurrency limiter are not.
+ * GETs are retried automatically; mutations only if {@link Builder#retryMutations(boolean)} is set, since an
+ * {@code add-record} whose response was lost may already have been applied.
+ * <p>
+ * Retries wait for an exponentially growing backoff with full jitter, or for the server's {@code Retry-After} if that
+ * is longer, and each one must be paid for from the {@link RetryBudget}.
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final long maxRetryAfterNanos;
+    private final boolean retryMutations;
+    private final RetryBudget budget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.multiplier = builder.multiplier;
+        this.maxRetryAfterNanos = builder.maxRetryAfter.toNanos();
+        this.retryMutations = builder.retryMutations;
+        this.budget = builder.budget != null ? builder.budget : RetryBudget.defaults();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Up to 3 attempts of GETs, backing off from 50ms to at most 2s.
+     */
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return A policy that never retries.
+     */
+    public static RetryPolicy none() {
+        return builder().maxAttempts(1).build();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Records a new call in the budget.
+     */
+    public void onCall() {
+        budget.onCall();
+    }
+
+    /**
+     * @param idempotent Whether the call may safely be repeated, i.e. is a GET.
+     * @param attempts The number of attempts made so far.
+     * @param error The failure of the last attempt.
+     * @return The delay in nanoseconds before the next attempt, or -1 if the call must fail with {@code error}.
+     */
+    public long nextDelayNanos(boolean idempotent, int attempts, Throwable error) {
+        if (attempts >= maxAttempts || !(idempotent || retryMutations) || !isRetryable(error)) {
+            return -1;
+        }
+        Duration retryAfter = retryAfter(error);
+        long delay = backoffNanos(attempts);
+        if (retryAfter != null) {
+            if (retryAfter.toNanos() > maxRetryAfterNanos) {
+                return -1;
+            }
+            delay = Math.max(delay, retryAfter.toNanos());
+        }
+        return budget.tryRetry() ? delay : -1;
+    }
+
+    /**
+     * Classifies a failure as transient. Subclasses may widen or narrow the classification.
+     */
+    public boolean isRetryable(Throwable error) {
+        if (error instanceof HttpStatusException) {
+            int code = ((HttpStatusException) error).getCode();
+            return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+        }
+        if (error instanceof SocketTimeoutException) {
+            return true;
+        }
+        if (error instanceof CallNotPermittedException || error instanceof LimitExceededException
+                || error instanceof InterruptedIOException || error instanceof JsonProcessingException) {
+            return false;
+        }
+        // OkHttp reports a cancelled call as a plain IOException
+        return error instanceof IOException && !"Canceled".equals(error.getMessage());
+    }
+
+    /**
+     * @return A random delay between zero and the exponential backoff for the given attempt.
+     */
+    long backoffNanos(int attempts) {
+        double ceiling = initialBackoffNanos * Math.pow(multiplier, attempts - 1);
+        long bound = (long) Math.min(maxBackoffNanos, ceiling);
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    @Nullable
+    private static Duration retryAfter(Throwable error) {
+        return error instanceof HttpStatusException ? ((HttpStatusException) error).getRetryAfter() : null;
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private double multiplier = 2;
+        private Duration maxRetryAfter = Duration.ofSeconds(10);
+        private boolean retryMutations;
+        private RetryBudget budget;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxAttempts The maximum number of attempts per call, including the first one.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration initialBackoff, Duration maxBackoff, double multiplier) {
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * @param maxRetryAfter The longest {@code Retry-After} honoured; a server asking for more fails the call.
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Also retries add, update and delete calls. Only safe when duplicates are harmless for the application.
+         */
+        public Builder retryMutations(boolean retryMutations) {
+            this.retryMutations = retryMutations;
+            return this;
+        }
+
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.resilience;
+
+/**
+ * The estimated queue at the server is {@code limit * (1 - minRtt / rtt)}. While it is below alpha the limit grows,
+ * above beta it shrinks, both by steps that scale with the logarithm of the limit. The lowest round-trip time is
+ * forgotten every {@value #PROBE_INTERVAL} updates, so that a server that became slower for good is measured again.
+ */
+class VegasLimit implements LimitAlgorithm {
+    static final int PROBE_INTERVAL = 1000;
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private long minRttNanos;
+    private int updates;
+
+    VegasLimit(int initialLimit, int maxLimit) {
+        if (initialLimit < 1 || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Invalid Vegas limit");
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int limit, int inFlight, long rttNanos, boolean dropped) {
+        if (++updates % PROBE_INTERVAL == 0) {
+            minRttNanos = 0;
+        }
+        if (rttNanos > 0 && (minRttNanos == 0 || rttNanos < minRttNanos)) {
+            minRttNanos = rttNanos;
+        }
+        double step = Math.max(1, Math.log10(limit));
+        if (dropped) {
+            return Math.max(1, (int) (limit - step));
+        }
+        if (inFlight * 2 < limit || minRttNanos == 0) {
+            return limit;
+        }
+        double queue = Math.ceil(limit * (1 - (double) minRttNanos / Math.max(rttNanos, minRttNanos)));
+        double alpha = 3 * step;
+        double beta = 6 * step;
+        if (queue <= step) {
+            return Math.min(maxLimit, (int) (limit + beta));
+        }
+        if (queue < alpha) {
+            return Math.min(maxLimit, (int) (limit + step));
+        }
+        if (queue > beta) {
+            return Math.max(1, (int) (limit - step));
+        }
+        return limit;
+    }
+}
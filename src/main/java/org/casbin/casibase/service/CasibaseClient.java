@@ -0,0 +1,564 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.casbin.casibase.balancer.Endpoint;
+import org.casbin.casibase.balancer.EndpointGroup;
+import org.casbin.casibase.balancer.LoadBalancer;
+import org.casbin.casibase.config.Config;
+import org.casbin.casibase.metrics.CasibaseMetrics;
+import org.casbin.casibase.resilience.CircuitBreaker;
+import org.casbin.casibase.resilience.CircuitBreakerConfig;
+import org.casbin.casibase.resilience.ConcurrencyLimiter;
+import org.casbin.casibase.resilience.HedgePolicy;
+import org.casbin.casibase.resilience.RateLimits;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.util.AuthTypeEnum;
+import org.casbin.casibase.util.VirtualThreads;
+import org.casbin.casibase.util.http.HttpClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point that owns one {@link ObjectMapper} and one {@link OkHttpClient} and hands out services bound to them.
+ * <p>
+ * A client is thread-safe and meant to be created once per Casibase endpoint and shared. Unlike services created
+ * directly from a {@link Config}, a client does not use the static http client of
+ * {@link org.casbin.casibase.util.http.HttpClient}, so several clients pointed at different endpoints are fully
+ * independent of each other.
+ * <pre>
+ * CasibaseClient client = new CasibaseClient(config);
+ * Record record = client.records().getRecord("record_123");
+ * </pre>
+ */
+public class CasibaseClient implements AutoCloseable {
+    private final Config config;
+    private final String credential;
+    private final ObjectMapper objectMapper;
+    private final OkHttpClient httpClient;
+    private final boolean ownsHttpClient;
+    private final boolean ownsDispatcherExecutor;
+    private final Executor decoderExecutor;
+    @Nullable
+    private final ExecutorService ownedDecoderExecutor;
+    private final CasibaseMetrics metrics;
+    private final RetryPolicy retryPolicy;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final EndpointGroup endpoints;
+    private final java.util.Map<String, CircuitBreaker> circuitBreakers;
+    private final java.util.Map<String, HedgePolicy> hedgePolicies;
+    @Nullable
+    private final ConcurrencyLimiter concurrencyLimiter;
+    @Nullable
+    private final RateLimits rateLimits;
+    @Nullable
+    private final Duration storeCacheTtl;
+    private final long storeCacheMaxWeight;
+    private final Set<String> coalescedOperations;
+    private final SingleFlight singleFlight = new SingleFlight();
+    @Nullable
+    private final ConditionalGets conditionalGets;
+
+    private final RecordService records;
+    private final TaskService tasks;
+    private final StoreService stores;
+
+    public CasibaseClient(Config config) {
+        this(builder(config));
+    }
+
+    private CasibaseClient(Builder builder) {
+        this.config = builder.config;
+        this.credential = Service.credential(builder.config, builder.authType);
+        this.objectMapper = builder.objectMapper != null ? builder.objectMapper : newObjectMapper();
+        this.ownsHttpClient = builder.httpClient == null;
+        this.ownsDispatcherExecutor = ownsHttpClient && builder.dispatcherExecutor == null;
+        ExecutorService dispatcherExecutor = builder.dispatcherExecutor;
+        if (ownsHttpClient && dispatcherExecutor == null && builder.virtualThreads) {
+            dispatcherExecutor = VirtualThreads.newExecutor("casibase-dispatcher");
+        }
+        this.httpClient = builder.httpClient != null ? builder.httpClient : newHttpClient(builder.config, dispatcherExecutor);
+        this.metrics = builder.metrics != null ? builder.metrics : new CasibaseMetrics();
+        this.retryPolicy = builder.retryPolicy;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "casibase-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.endpoints = new EndpointGroup(builder.endpoints != null ? builder.endpoints : Collections.singletonList(config.endpoint),
+                builder.loadBalancer, builder.ejectAfter, builder.ejection);
+        java.util.Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+        if (builder.circuitBreakerConfig != null) {
+            for (Endpoint endpoint : endpoints.getEndpoints()) {
+                circuitBreakers.put(endpoint.getUrl(), new CircuitBreaker(endpoint.getUrl(), builder.circuitBreakerConfig));
+            }
+        }
+        this.circuitBreakers = Collections.unmodifiableMap(circuitBreakers);
+        // as many responses are decoded at once as the dispatcher lets calls run against the endpoints
+        int decoders = Math.min(httpClient.dispatcher().getMaxRequests(),
+                httpClient.dispatcher().getMaxRequestsPerHost() * endpoints.getEndpoints().size());
+        if (builder.decoderExecutor != null) {
+            this.ownedDecoderExecutor = null;
+            this.decoderExecutor = builder.decoderExecutor;
+        } else if (builder.virtualThreads) {
+            this.ownedDecoderExecutor = VirtualThreads.newExecutor("casibase-decoder");
+            this.decoderExecutor = HttpClient.boundedDecoder(ownedDecoderExecutor, decoders);
+        } else {
+            this.ownedDecoderExecutor = HttpClient.newDecoderExecutor(decoders);
+            this.decoderExecutor = ownedDecoderExecutor;
+        }
+        this.hedgePolicies = new java.util.HashMap<>(builder.hedgePolicies);
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.rateLimits = builder.rateLimits;
+        this.storeCacheTtl = builder.storeCacheTtl;
+        this.storeCacheMaxWeight = builder.storeCacheMaxWeight;
+        this.coalescedOperations = Collections.unmodifiableSet(new HashSet<>(builder.coalescedOperations));
+        this.conditionalGets = builder.conditionalOperations.isEmpty() ? null
+                : new ConditionalGets(builder.conditionalOperations, builder.conditionalMaxWeight);
+
+        this.records = new RecordService(this);
+        this.tasks = new TaskService(this);
+        this.stores = new StoreService(this);
+    }
+
+    public static Builder builder(Config config) {
+        return new Builder(config);
+    }
+
+    public RecordService records() {
+        return records;
+    }
+
+    public TaskService tasks() {
+        return tasks;
+    }
+
+    public StoreService stores() {
+        return stores;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * @return The latency, throughput and error metrics of every call made through this client's services.
+     */
+    public CasibaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return The replicas calls are spread over; only {@code config.endpoint} unless others were configured.
+     */
+    public EndpointGroup getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return The circuit breakers of the client, keyed by endpoint, or an empty map if it was built without them.
+     */
+    public java.util.Map<String, CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    @Nullable
+    CircuitBreaker getCircuitBreaker(String endpoint) {
+        return circuitBreakers.get(endpoint);
+    }
+
+    /**
+     * @return The limiter of the calls in flight, or null if the client was built without one.
+     */
+    @Nullable
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return The rate limits of the client, or null if it was built without them.
+     */
+    @Nullable
+    public RateLimits getRateLimits() {
+        return rateLimits;
+    }
+
+    @Nullable
+    HedgePolicy getHedgePolicy(String operation) {
+        return hedgePolicies.get(operation);
+    }
+
+    /**
+     * Runs the delayed work of async calls, such as retries after a backoff. Its single thread is started on first use.
+     */
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Reads and decodes the responses of async calls, off the OkHttp dispatcher threads.
+     */
+    Executor getDecoderExecutor() {
+        return decoderExecutor;
+    }
+
+    String getCredential() {
+        return credential;
+    }
+
+    @Nullable
+    Duration getStoreCacheTtl() {
+        return storeCacheTtl;
+    }
+
+    long getStoreCacheMaxWeight() {
+        return storeCacheMaxWeight;
+    }
+
+    boolean isCoalesced(String operation) {
+        return coalescedOperations.contains(operation);
+    }
+
+    SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    @Nullable
+    ConditionalGets getConditionalGets() {
+        return conditionalGets;
+    }
+
+    /**
+     * Stops the scheduler and releases the dispatcher and decoder threads and pooled connections of the http client,
+     * unless they were supplied by the caller. Async calls waiting for a retry still make it, and fail once the http
+     * client is shut down.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        if (ownsDispatcherExecutor) {
+            httpClient.dispatcher().executorService().shutdown();
+        }
+        if (ownedDecoderExecutor != null) {
+            ownedDecoderExecutor.shutdown();
+        }
+        if (ownsHttpClient) {
+            httpClient.connectionPool().evictAll();
+        }
+    }
+
+    static OkHttpClient newHttpClient(Config config) {
+        return newHttpClient(config, null);
+    }
+
+    /**
+     * Creates an http client with its own connection pool and dispatcher, configured from the connection settings
+     * of the given config.
+     *
+     * @param executor The executor running async calls, or null for OkHttp's own thread pool.
+     */
+    static OkHttpClient newHttpClient(Config config, @Nullable ExecutorService executor) {
+        Dispatcher dispatcher = executor != null ? new Dispatcher(executor) : new Dispatcher();
+        dispatcher.setMaxRequests(config.maxRequests);
+        dispatcher.setMaxRequestsPerHost(config.maxRequestsPerHost);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(config.maxIdleConnections, config.keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(config.connectTimeout)
+                .readTimeout(config.readTimeout)
+                .writeTimeout(config.writeTimeout)
+                .callTimeout(config.callTimeout)
+                .protocols(config.http2 ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1))
+                .build();
+    }
+
+    static ObjectMapper newObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    public static class Builder {
+        private final Config config;
+        private AuthTypeEnum authType = AuthTypeEnum.BASIC;
+        private ObjectMapper objectMapper;
+        private OkHttpClient httpClient;
+        private CasibaseMetrics metrics;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private CircuitBreakerConfig circuitBreakerConfig;
+        private List<String> endpoints;
+        private LoadBalancer loadBalancer = LoadBalancer.roundRobin();
+        private int ejectAfter = 3;
+        private Duration ejection = Duration.ofSeconds(10);
+        private final java.util.Map<String, HedgePolicy> hedgePolicies = new java.util.HashMap<>();
+        private ConcurrencyLimiter concurrencyLimiter;
+        private RateLimits rateLimits;
+        private ExecutorService dispatcherExecutor;
+        private Executor decoderExecutor;
+        private boolean virtualThreads;
+        private Duration storeCacheTtl;
+        private long storeCacheMaxWeight;
+        private final Set<String> coalescedOperations = new HashSet<>();
+        private final Set<String> conditionalOperations = new HashSet<>();
+        private long conditionalMaxWeight;
+
+        private Builder(Config config) {
+            this.config = config;
+        }
+
+        public Builder authType(AuthTypeEnum authType) {
+            this.authType = authType;
+            return this;
+        }
+
+        /**
+         * Uses the given mapper instead of a new one. It must not be reconfigured once the client is built.
+         */
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Uses the given http client instead of a new one. The connection settings of the config are not applied to it,
+         * and the caller remains responsible for shutting it down.
+         */
+        public Builder httpClient(OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Runs async calls on the given executor instead of OkHttp's own thread pool. The caller remains responsible
+         * for shutting it down. Ignored when an http client is supplied.
+         */
+        public Builder dispatcherExecutor(ExecutorService dispatcherExecutor) {
+            this.dispatcherExecutor = dispatcherExecutor;
+            return this;
+        }
+
+        /**
+         * Decodes the responses of async calls on the given executor, which the caller remains responsible for
+         * shutting down. It should bound the number of responses it reads at once, see
+         * {@link HttpClient#enqueue(OkHttpClient, okhttp3.Request, HttpClient.ResponseReader, Executor)}. By default
+         * the client decodes them on its own daemon threads, one per call its dispatcher runs at once, and a response
+         * arriving while all of them are busy on the OkHttp dispatcher thread that received it.
+         */
+        public Builder decoderExecutor(Executor decoderExecutor) {
+            this.decoderExecutor = decoderExecutor;
+            return this;
+        }
+
+        /**
+         * Runs async calls and the decoding of their responses on virtual threads, one per call, on JDK 21 and later;
+         * on older JDKs this falls back to pools of platform threads. No more responses are decoded at once than on
+         * the default decoder threads. Synchronous calls run on the caller's thread, which may be virtual as well. Each part is ignored when its own executor, or an http client, is supplied.
+         *
+         * @see VirtualThreads
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Records into the given metrics instead of new ones, e.g. to aggregate several clients.
+         */
+        public Builder metrics(CasibaseMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Replaces the default policy, which retries failed GETs up to twice, and never retries mutations.
+         * Use {@link RetryPolicy#none()} to disable retries.
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Guards every endpoint with its own {@link CircuitBreaker}, so that calls fail fast with a
+         * {@link org.casbin.casibase.resilience.CallNotPermittedException} while the server is failing, instead of
+         * each waiting for a timeout. With several endpoints, calls go around those whose breaker is open.
+         */
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Spreads calls over several replicas of the server instead of sending them all to {@code config.endpoint}.
+         * Requests are still built against {@code config.endpoint} and pointed at the chosen replica, so it does not
+         * need to be one of them. Failed GETs are retried on another replica at once, within the retry policy.
+         *
+         * @param urls The base URLs of the replicas.
+         */
+        public Builder endpoints(String... urls) {
+            this.endpoints = Arrays.asList(urls.clone());
+            return this;
+        }
+
+        /**
+         * Replaces the default round-robin strategy choosing among the endpoints.
+         */
+        public Builder loadBalancer(LoadBalancer loadBalancer) {
+            this.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        /**
+         * Sets when an endpoint is considered unhealthy and avoided. By default, after 3 consecutive failures, for 10s.
+         *
+         * @param consecutiveFailures The number of consecutive failed calls after which an endpoint is ejected.
+         * @param ejection How long it is avoided before calls are sent to it again.
+         */
+        public Builder outlierDetection(int consecutiveFailures, Duration ejection) {
+            this.ejectAfter = consecutiveFailures;
+            this.ejection = ejection;
+            return this;
+        }
+
+        /**
+         * Lets at most as many requests into flight as the limiter allows, across all operations and endpoints.
+         * Each attempt, retry and hedge takes its own slot. Async calls beyond the limit wait without holding a
+         * thread.
+         */
+        public Builder concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * Spaces out requests according to the given limits, keyed by the organization of the config. Synchronous
+         * calls wait on the calling thread, async calls on the client's scheduler. Retries and hedges are requests
+         * too and take their own permits.
+         */
+        public Builder rateLimits(RateLimits rateLimits) {
+            this.rateLimits = rateLimits;
+            return this;
+        }
+
+        /**
+         * Hedges GETs of the given operations: a call that has not been answered within the delay of the policy is
+         * sent again, to another endpoint if there is one, and the first answer wins. Synchronous calls of these
+         * operations then wait for async exchanges.
+         *
+         * @param policy The delay and budget of the hedges.
+         * @param operations Read operations such as {@code get-store} or {@code get-task}.
+         * @throws IllegalArgumentException If an operation modifies data; those are never hedged.
+         */
+        public Builder hedge(HedgePolicy policy, String... operations) {
+            for (String operation : operations) {
+                hedgePolicies.put(requireRead(operation), policy);
+            }
+            return this;
+        }
+
+        /**
+         * Caches the results of {@link StoreService#getStore(String)} and {@link StoreService#getStores()}.
+         * Writes made through this client invalidate the affected entries; writes made elsewhere become visible
+         * once the entries expire.
+         *
+         * @param ttl The time a store stays cached after it was fetched.
+         * @param maxWeightBytes The maximum total size of the cached stores, counted as the size of the responses
+         *                       they were decoded from.
+         */
+        public Builder storeCache(Duration ttl, long maxWeightBytes) {
+            this.storeCacheTtl = ttl;
+            this.storeCacheMaxWeight = maxWeightBytes;
+            return this;
+        }
+
+        /**
+         * Lets identical concurrent GETs of the given operations share one call: callers asking for the same action
+         * and query parameters while a request is in flight receive its decoded result instead of sending their own.
+         * Shared results are the same objects for every caller and must not be modified.
+         *
+         * @param operations Read operations such as {@code get-store} or {@code get-tasks}.
+         * @throws IllegalArgumentException If an operation modifies data; those are never coalesced.
+         */
+        public Builder coalesce(String... operations) {
+            for (String operation : operations) {
+                coalescedOperations.add(requireRead(operation));
+            }
+            return this;
+        }
+
+        /**
+         * Revalidates GETs of the given operations instead of downloading them again. The last result of every URL
+         * is kept together with its {@code ETag} and {@code Last-Modified} validators, which are sent back as
+         * {@code If-None-Match} and {@code If-Modified-Since}; a "304 Not Modified" then returns the kept result
+         * without decoding anything. For responses without validators, an unchanged body is recognised by its hash
+         * and not decoded again. Kept results are the same objects for every caller and must not be modified.
+         *
+         * @param maxWeightBytes The maximum total size of the kept response bodies.
+         * @param operations Read operations such as {@code get-stores}.
+         * @throws IllegalArgumentException If an operation modifies data.
+         */
+        public Builder conditionalGet(long maxWeightBytes, String... operations) {
+            for (String operation : operations) {
+                conditionalOperations.add(requireRead(operation));
+            }
+            this.conditionalMaxWeight = maxWeightBytes;
+            return this;
+        }
+
+        public CasibaseClient build() {
+            return new CasibaseClient(this);
+        }
+
+        private static String requireRead(String operation) {
+            if (operation.startsWith("add-") || operation.startsWith("update-") || operation.startsWith("delete-")) {
+                throw new IllegalArgumentException("Not a read operation: " + operation);
+            }
+            return operation;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.entity.Task;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Polls a listing such as {@link StoreService#getStores()} and reports what was added, updated or removed since the
+ * previous poll. Objects are matched by {@code owner/name} and compared by a 128-bit hash of their JSON encoding.
+ * <p>
+ * The poll interval adapts between a minimum and a maximum: a poll that finds changes brings the next one down to the
+ * minimum, since changes tend to come in bursts, and every quiet poll stretches it by the growth factor, up to the
+ * maximum. Failed polls are reported to the listener and stretch the interval like quiet ones.
+ * <p>
+ * The feed keeps one index from key to hash and reuses it from poll to poll: entries are updated in place and only
+ * new keys allocate. When the operation is revalidated with {@code CasibaseClient.Builder#conditionalGet}, an
+ * unchanged listing comes back as the very same list and is not hashed at all.
+ * <pre>
+ * ChangeFeed&lt;Store&gt; feed = ChangeFeed.stores(client.stores())
+ *         .interval(Duration.ofSeconds(1), Duration.ofMinutes(1))
+ *         .listener(changes -&gt; changes.forEach(this::apply))
+ *         .build();
+ * feed.start();
+ * </pre>
+ *
+ * @param <T> The type of the listed objects.
+ */
+public class ChangeFeed<T> implements AutoCloseable {
+
+    /**
+     * Lists every object followed by the feed.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        List<T> list() throws IOException;
+    }
+
+    /**
+     * Receives the changes found by each poll. Callbacks run on the feed's thread, one poll at a time.
+     */
+    public interface Listener<T> {
+        /**
+         * Called after every poll that found at least one change.
+         */
+        void onChanges(List<Change<T>> changes);
+
+        default void onError(Throwable error) {
+        }
+    }
+
+    public static final class Change<T> {
+        public enum Type {
+            ADDED,
+            UPDATED,
+            REMOVED
+        }
+
+        private final Type type;
+        private final String key;
+        private final T value;
+
+        Change(Type type, String key, T value) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return {@code owner/name} of the object.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return The new object, or the last one seen for {@link Type#REMOVED}.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + key;
+        }
+    }
+
+    /** What the feed knows about one object; updated in place from poll to poll. */
+    private static final class Entry<T> {
+        long hash1;
+        long hash2;
+        long generation;
+        T value;
+    }
+
+    /** Reused buffer for the JSON encoding of one object. */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(4096);
+        }
+
+        long[] hash() {
+            return MurmurHash3.hash128x64(buf, 0, count, 0);
+        }
+    }
+
+    private final Source<T> source;
+    private final Function<T, String> keyFunction;
+    private final ObjectWriter writer;
+    private final Listener<T> listener;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double growth;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final java.util.Map<String, Entry<T>> index = new HashMap<>();
+    private final Buffer buffer = new Buffer();
+    private long generation;
+    @Nullable
+    private List<T> lastList;
+    private long intervalNanos;
+
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    private ChangeFeed(Builder<T> builder) {
+        this.source = builder.source;
+        this.keyFunction = builder.keyFunction;
+        this.writer = builder.writer;
+        this.listener = builder.listener;
+        this.minIntervalNanos = builder.minInterval.toNanos();
+        this.maxIntervalNanos = builder.maxInterval.toNanos();
+        this.growth = builder.growth;
+        this.intervalNanos = minIntervalNanos;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "casibase-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Follows the stores of the organization.
+     */
+    public static Builder<Store> stores(StoreService stores) {
+        return new Builder<>(stores::loadStores, store -> store.owner + "/" + store.name, stores.objectMapper.writer());
+    }
+
+    /**
+     * Follows the tasks of the organization.
+     */
+    public static Builder<Task> tasks(TaskService tasks) {
+        return new Builder<>(tasks::getTasks, task -> task.owner + "/" + task.name, tasks.objectMapper.writer());
+    }
+
+    /**
+     * Follows any listing.
+     *
+     * @param source Lists the objects.
+     * @param keyFunction The identity of an object, usually {@code owner/name}.
+     * @param writer Encodes an object whose hash tells whether it changed.
+     */
+    public static <T> Builder<T> builder(Source<T> source, Function<T, String> keyFunction, ObjectWriter writer) {
+        return new Builder<>(source, keyFunction, writer);
+    }
+
+    /**
+     * Starts polling in the background, the first poll right away.
+     */
+    public void start() {
+        schedule(0);
+    }
+
+    /**
+     * Lists the objects once and compares them with the previous poll. The first poll reports every object as added.
+     *
+     * @return The changes, possibly none.
+     * @throws IOException If the listing fails; the previous state is kept.
+     */
+    public List<Change<T>> poll() throws IOException {
+        List<T> list = source.list();
+        lock.lock();
+        try {
+            if (list == lastList) {
+                return Collections.emptyList();
+            }
+            List<Change<T>> changes = diff(list);
+            lastList = list;
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The delay before the next background poll.
+     */
+    public Duration getInterval() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(intervalNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of objects seen by the last poll.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops polling. A poll in progress finishes, but its changes are not reported.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+    }
+
+    private List<Change<T>> diff(@Nullable List<T> list) throws IOException {
+        // Every object is encoded before the index is touched, so an object that cannot be encoded leaves the index
+        // as the previous poll left it and the next poll still reports every change.
+        List<String> keys = new ArrayList<>();
+        List<T> values = new ArrayList<>();
+        List<long[]> hashes = new ArrayList<>();
+        if (list != null) {
+            Set<String> seen = new HashSet<>();
+            for (T value : list) {
+                String key = keyFunction.apply(value);
+                if (!seen.add(key)) {
+                    continue;
+                }
+                buffer.reset();
+                writer.writeValue(buffer, value);
+                keys.add(key);
+                values.add(value);
+                hashes.add(buffer.hash());
+            }
+        }
+
+        long current = ++generation;
+        List<Change<T>> changes = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            T value = values.get(i);
+            long[] hash = hashes.get(i);
+            Entry<T> entry = index.get(key);
+            if (entry == null) {
+                entry = new Entry<>();
+                index.put(key, entry);
+                changes.add(new Change<>(Change.Type.ADDED, key, value));
+            } else if (entry.hash1 != hash[0] || entry.hash2 != hash[1]) {
+                changes.add(new Change<>(Change.Type.UPDATED, key, value));
+            }
+            entry.hash1 = hash[0];
+            entry.hash2 = hash[1];
+            entry.generation = current;
+            entry.value = value;
+        }
+        for (Iterator<java.util.Map.Entry<String, Entry<T>>> it = index.entrySet().iterator(); it.hasNext(); ) {
+            java.util.Map.Entry<String, Entry<T>> e = it.next();
+            if (e.getValue().generation != current) {
+                changes.add(new Change<>(Change.Type.REMOVED, e.getKey(), e.getValue().value));
+                it.remove();
+            }
+        }
+        return changes;
+    }
+
+    private void run() {
+        List<Change<T>> changes = Collections.emptyList();
+        Throwable error = null;
+        try {
+            changes = poll();
+        } catch (IOException | RuntimeException e) {
+            error = e;
+        }
+        long delay;
+        lock.lock();
+        try {
+            intervalNanos = !changes.isEmpty() ? minIntervalNanos : Math.min(maxIntervalNanos, (long) (intervalNanos * growth));
+            delay = intervalNanos;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (closed) {
+                return;
+            }
+            if (error != null) {
+                listener.onError(error);
+            } else if (!changes.isEmpty()) {
+                listener.onChanges(changes);
+            }
+        } catch (RuntimeException e) {
+            // a failing listener must not stop the feed
+        } finally {
+            schedule(delay);
+        }
+    }
+
+    private void schedule(long delayNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::run, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile
+        }
+    }
+
+    public static class Builder<T> {
+        private final Source<T> source;
+        private final Function<T, String> keyFunction;
+        private final ObjectWriter writer;
+        private Duration minInterval = Duration.ofSeconds(1);
+        private Duration maxInterval = Duration.ofSeconds(60);
+        private double growth = 2;
+        private Listener<T> listener = changes -> {
+        };
+
+        private Builder(Source<T> source, Function<T, String> keyFunction, ObjectWriter writer) {
+            this.source = source;
+            this.keyFunction = keyFunction;
+            this.writer = writer;
+        }
+
+        /** Bounds of the poll interval. Defaults to 1 second and 1 minute. */
+        public Builder<T> interval(Duration minInterval, Duration maxInterval) {
+            if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+                throw new IllegalArgumentException("Invalid poll interval: " + minInterval + " to " + maxInterval);
+            }
+            this.minInterval = minInterval;
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /** Factor by which every quiet poll stretches the interval. Defaults to 2. */
+        public Builder<T> growth(double growth) {
+            if (!(growth >= 1)) {
+                throw new IllegalArgumentException("growth must be at least 1: " + growth);
+            }
+            this.growth = growth;
+            return this;
+        }
+
+        /** Receives the changes found by background polls. */
+        public Builder<T> listener(Listener<T> listener) {
+            this.listener = Objects.requireNonNull(listener, "listener");
+            return this;
+        }
+
+        public ChangeFeed<T> build() {
+            return new ChangeFeed<>(this);
+        }
+    }
+}
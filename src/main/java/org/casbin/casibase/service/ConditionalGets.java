@@ -0,0 +1,102 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import okhttp3.Request;
+import org.casbin.casibase.util.LruCache;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers, per URL, the validators and the decoded result of the last successful GET of the operations it covers,
+ * so the next GET of that URL can be conditional and a "304 Not Modified" answered with the remembered result.
+ * <p>
+ * When the server sent neither an {@code ETag} nor a {@code Last-Modified} header, a hash of the body stands in for
+ * them: the request is sent unconditionally, but an identical body is recognised before it is decoded.
+ * Entries are weighed by body size; entries not revalidated for an hour are dropped.
+ */
+class ConditionalGets {
+    private static final long TTL_HOURS = 1;
+
+    static class Entry {
+        @Nullable
+        final String etag;
+        @Nullable
+        final String lastModified;
+        @Nullable
+        final long[] bodyHash;
+        final CasibaseResponse<?, ?> response;
+        final long weight;
+
+        Entry(@Nullable String etag, @Nullable String lastModified, @Nullable long[] bodyHash,
+              CasibaseResponse<?, ?> response, long weight) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyHash = bodyHash;
+            this.response = response;
+            this.weight = weight;
+        }
+
+        /**
+         * @return The request with the validators of this entry, if any.
+         */
+        Request conditional(Request request) {
+            if (etag == null && lastModified == null) {
+                return request;
+            }
+            Request.Builder builder = request.newBuilder();
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                builder.header("If-Modified-Since", lastModified);
+            }
+            return builder.build();
+        }
+
+        boolean hasBody(long[] hash) {
+            return bodyHash != null && Arrays.equals(bodyHash, hash);
+        }
+    }
+
+    private final Set<String> operations;
+    private final LruCache<String, Entry> entries;
+
+    ConditionalGets(Set<String> operations, long maxWeight) {
+        this.operations = Collections.unmodifiableSet(new HashSet<>(operations));
+        this.entries = new LruCache<>(TTL_HOURS, TimeUnit.HOURS, maxWeight, entry -> entry.weight);
+    }
+
+    boolean covers(String operation, Request request) {
+        return "GET".equals(request.method()) && operations.contains(operation);
+    }
+
+    @Nullable
+    Entry get(String url) {
+        return entries.get(url);
+    }
+
+    void put(String url, Entry entry) {
+        entries.put(url, entry, entries.generation());
+    }
+}
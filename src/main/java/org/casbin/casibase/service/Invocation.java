@@ -0,0 +1,518 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.casbin.casibase.balancer.Endpoint;
+import org.casbin.casibase.balancer.EndpointGroup;
+import org.casbin.casibase.metrics.CasibaseMetrics;
+import org.casbin.casibase.resilience.CallNotPermittedException;
+import org.casbin.casibase.resilience.CircuitBreaker;
+import org.casbin.casibase.resilience.ConcurrencyLimiter;
+import org.casbin.casibase.resilience.HedgePolicy;
+import org.casbin.casibase.resilience.LimitExceededException;
+import org.casbin.casibase.resilience.RateLimits;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.util.http.HttpClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * One call made through a {@link CasibaseClient}: one or more attempts of the same request, timed as a whole and
+ * retried according to the client's {@link RetryPolicy}. Each attempt goes to an endpoint of the client's
+ * {@link EndpointGroup}, preferring those the call has not failed on, whose circuit breaker permits it, and reports its
+ * outcome to the endpoint and the breaker.
+ * <p>
+ * Blocking invocations run their attempts on the calling thread and sleep between them, so {@link #start()} returns
+ * a completed future. Async invocations enqueue their attempts on the OkHttp dispatcher and wait on the client's
+ * scheduler; cancelling the returned future cancels the attempts in flight and the pending retry.
+ * <p>
+ * Calls of operations with a {@link HedgePolicy} are always async. When an attempt has not been answered within the
+ * hedge delay, a hedge is sent, to another endpoint if there is one, and races it: the first success completes the
+ * call and cancels the other, while a failure only counts once no exchange is left in flight.
+ *
+ * @param <R> The type produced by a successful attempt.
+ */
+class Invocation<R> {
+    private final CasibaseClient client;
+    private final String action;
+    private final String base;
+    private final EndpointGroup endpoints;
+    private final Request request;
+    private final boolean idempotent;
+    private final Function<CasibaseMetrics.Sample.Attempt, HttpClient.ResponseReader<R>> readers;
+    private final boolean blocking;
+    private final long bytesSent;
+    private final CasibaseMetrics.Sample sample;
+    private final RetryPolicy retryPolicy;
+    @Nullable
+    private final HedgePolicy hedgePolicy;
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** The exchanges in flight; more than one only while hedges race the attempt they hedge. */
+    private final List<Exchange> running = new ArrayList<>(2);
+    private final List<Endpoint> failed = new ArrayList<>(2);
+    private int attempts;
+    private int hedges;
+
+    @Nullable
+    private volatile Future<?> retryTimer;
+    @Nullable
+    private volatile Future<?> hedgeTimer;
+
+    /**
+     * @param client The client whose http client, policies and metrics are used.
+     * @param action The operation name, e.g. {@code get-records}.
+     * @param request The request sent by every attempt.
+     * @param readers Creates the response reader of an attempt.
+     * @param blocking Whether attempts run on the calling thread; ignored for hedged operations.
+     */
+    Invocation(CasibaseClient client, String action, Request request,
+               Function<CasibaseMetrics.Sample.Attempt, HttpClient.ResponseReader<R>> readers, boolean blocking) {
+        this.client = client;
+        this.action = action;
+        this.base = client.getConfig().endpoint;
+        this.endpoints = client.getEndpoints();
+        this.request = request;
+        this.idempotent = "GET".equals(request.method());
+        this.readers = readers;
+        this.hedgePolicy = idempotent ? client.getHedgePolicy(action) : null;
+        this.blocking = blocking && hedgePolicy == null;
+        this.bytesSent = contentLength(request);
+        this.sample = client.getMetrics().start(action);
+        this.retryPolicy = client.getRetryPolicy();
+    }
+
+    CompletableFuture<R> start() {
+        retryPolicy.onCall();
+        if (hedgePolicy != null) {
+            hedgePolicy.onCall();
+        }
+        result.whenComplete((value, error) -> {
+            cancel(retryTimer);
+            cancel(hedgeTimer);
+            List<Exchange> losers;
+            lock.lock();
+            try {
+                losers = new ArrayList<>(running);
+            } finally {
+                lock.unlock();
+            }
+            for (Exchange exchange : losers) {
+                cancel(exchange.future);
+            }
+        });
+        attempt();
+        return result;
+    }
+
+    private void attempt() {
+        send(false);
+    }
+
+    private void hedge() {
+        send(true);
+    }
+
+    /**
+     * Sends the request to the best endpoint available.
+     *
+     * @param hedge Whether the exchange races those in flight rather than following a failed one.
+     */
+    private void send(boolean hedge) {
+        Exchange exchange;
+        CallNotPermittedException rejection = null;
+        lock.lock();
+        try {
+            if (result.isDone()) {
+                return;
+            }
+            if (hedge && (!mayHedge() || !hedgePolicy.tryHedge())) {
+                return;
+            }
+            List<Endpoint> avoided = failed;
+            if (!running.isEmpty()) {
+                avoided = new ArrayList<>(failed);
+                for (Exchange other : running) {
+                    avoided.add(other.endpoint);
+                }
+            }
+            exchange = null;
+            List<Endpoint> rejected = Collections.emptyList();
+            while (exchange == null) {
+                Endpoint endpoint = endpoints.select(rejected, avoided);
+                if (endpoint == null) {
+                    rejection = new CallNotPermittedException(client.getCircuitBreaker(rejected.get(0).getUrl()));
+                    break;
+                }
+                CircuitBreaker breaker = client.getCircuitBreaker(endpoint.getUrl());
+                CircuitBreaker.Permit permit = breaker != null ? breaker.tryAcquirePermission() : null;
+                if (breaker == null || permit != null) {
+                    exchange = new Exchange(endpoint, permit, hedge);
+                } else {
+                    if (rejected.isEmpty()) {
+                        rejected = new ArrayList<>(2);
+                    }
+                    rejected.add(endpoint);
+                }
+            }
+            if (hedge) {
+                if (exchange != null) {
+                    hedges++;
+                }
+            } else {
+                attempts++;
+            }
+            if (exchange != null) {
+                running.add(exchange);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (exchange == null) {
+            if (!hedge) {
+                retryOrFail(rejection, null);
+            }
+            return;
+        }
+        exchange.send();
+        if (hedgePolicy != null) {
+            scheduleHedge();
+        }
+    }
+
+    /**
+     * A hedge is only worth sending while every exchange in flight is still waiting for its response.
+     */
+    private boolean mayHedge() {
+        if (running.isEmpty() || hedges >= hedgePolicy.getMaxHedges()) {
+            return false;
+        }
+        for (Exchange exchange : running) {
+            CasibaseMetrics.Sample.Attempt attempt = exchange.attempt;
+            if (attempt != null && attempt.hasResponse()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void scheduleHedge() {
+        cancel(hedgeTimer);
+        try {
+            hedgeTimer = client.getScheduler().schedule(this::hedge,
+                    hedgePolicy.delayNanos(client.getMetrics(), action), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // the client is closing; the exchange in flight completes the call on its own
+        }
+        if (result.isDone()) {
+            cancel(hedgeTimer);
+        }
+    }
+
+    /**
+     * @param sent Whether the request reached the endpoint, so that a failure is held against it.
+     */
+    private void complete(Exchange exchange, @Nullable R value, @Nullable Throwable error, boolean sent) {
+        boolean last;
+        lock.lock();
+        try {
+            running.remove(exchange);
+            if (error != null && sent && !failed.contains(exchange.endpoint)) {
+                failed.add(exchange.endpoint);
+            }
+            last = running.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+        if (error == null) {
+            succeed(value, exchange.attempt);
+        } else if (last) {
+            retryOrFail(error, exchange.attempt);
+        }
+    }
+
+    private void succeed(R value, CasibaseMetrics.Sample.Attempt attempt) {
+        if (!result.isDone() && settled.compareAndSet(false, true)) {
+            sample.success(attempt);
+            result.complete(value);
+        }
+    }
+
+    private void retryOrFail(Throwable error, @Nullable CasibaseMetrics.Sample.Attempt attempt) {
+        if (result.isDone()) {
+            return;
+        }
+        int attempts;
+        boolean failover;
+        lock.lock();
+        try {
+            attempts = this.attempts;
+            failover = endpoints.hasHealthyEndpointBesides(failed);
+        } finally {
+            lock.unlock();
+        }
+        long delay = retryPolicy.nextDelayNanos(idempotent, attempts, error);
+        if (delay < 0) {
+            fail(error, attempt);
+            return;
+        }
+        if (delay > 0 && failover) {
+            // another replica can take the call right away
+            delay = 0;
+        }
+        if (!blocking) {
+            try {
+                retryTimer = client.getScheduler().schedule(this::attempt, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                fail(error, attempt);
+            }
+            if (result.isDone()) {
+                cancel(retryTimer);
+            }
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to retry");
+            interrupted.addSuppressed(error);
+            fail(interrupted, attempt);
+            return;
+        }
+        attempt();
+    }
+
+    private void fail(Throwable error, @Nullable CasibaseMetrics.Sample.Attempt attempt) {
+        if (!result.isDone() && settled.compareAndSet(false, true)) {
+            sample.failure(error, attempt);
+            result.completeExceptionally(error);
+        }
+    }
+
+    private static void cancel(@Nullable Future<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * One HTTP exchange of the call with one endpoint. When the client has {@link RateLimits}, the request is only
+     * sent once its permits are available, and when it has a {@link ConcurrencyLimiter}, once the limiter grants a
+     * slot.
+     */
+    private class Exchange {
+        final Endpoint endpoint;
+        @Nullable
+        final CircuitBreaker.Permit permit;
+        final boolean hedge;
+        /** Set once the request is sent. */
+        @Nullable
+        volatile CasibaseMetrics.Sample.Attempt attempt;
+        /** The pending rate limit wait, limiter slot or HTTP call, cancelled with the call. */
+        @Nullable
+        volatile Future<?> future;
+
+        Exchange(Endpoint endpoint, @Nullable CircuitBreaker.Permit permit, boolean hedge) {
+            this.endpoint = endpoint;
+            this.permit = permit;
+            this.hedge = hedge;
+        }
+
+        void send() {
+            RateLimits rateLimits = client.getRateLimits();
+            long wait = rateLimits == null ? 0 : rateLimits.reserve(client.getConfig().organizationName, action);
+            if (wait < 0) {
+                refused(new LimitExceededException("Rate limit of " + action + " exceeded"));
+            } else if (wait == 0) {
+                admit();
+            } else if (blocking) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    refused(new InterruptedIOException("Interrupted while waiting for the rate limit"));
+                    return;
+                }
+                admit();
+            } else {
+                try {
+                    future = client.getScheduler().schedule(this::admit, wait, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    refused(e);
+                    return;
+                }
+                if (result.isDone()) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        private void admit() {
+            ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+            if (limiter == null) {
+                transmit(null);
+                return;
+            }
+            CompletableFuture<ConcurrencyLimiter.Permit> admission = limiter.acquire(client.getScheduler());
+            future = admission;
+            if (result.isDone()) {
+                admission.cancel(false);
+            }
+            if (blocking) {
+                ConcurrencyLimiter.Permit slot;
+                try {
+                    slot = await(admission);
+                } catch (IOException | RuntimeException e) {
+                    refused(e);
+                    return;
+                }
+                transmit(slot);
+                return;
+            }
+            admission.whenComplete((slot, error) -> {
+                if (error != null) {
+                    refused(error instanceof CancellationException ? error : unwrap(error));
+                } else if (result.isDone()) {
+                    slot.release();
+                    refused(new CancellationException());
+                } else {
+                    transmit(slot);
+                }
+            });
+        }
+
+        /**
+         * Ends an exchange whose request was never sent.
+         */
+        private void refused(Throwable error) {
+            if (permit != null) {
+                permit.release();
+            }
+            complete(this, null, error, false);
+        }
+
+        private void transmit(@Nullable ConcurrencyLimiter.Permit slot) {
+            CasibaseMetrics.Sample.Attempt attempt = hedge ? sample.hedge(bytesSent) : sample.attempt(bytesSent);
+            this.attempt = attempt;
+            Request routed = endpoint.route(request, base);
+            endpoint.onStart();
+            long startNanos = System.nanoTime();
+            CompletableFuture<R> future;
+            if (blocking) {
+                future = new CompletableFuture<>();
+                this.future = future;
+                try {
+                    future.complete(HttpClient.execute(client.getHttpClient(), routed, readers.apply(attempt)));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            } else {
+                future = HttpClient.enqueue(client.getHttpClient(), routed, readers.apply(attempt), client.getDecoderExecutor());
+                this.future = future;
+                if (result.isDone()) {
+                    future.cancel(false);
+                }
+            }
+            future.whenComplete((value, error) -> {
+                long durationNanos = System.nanoTime() - startNanos;
+                boolean cancelled = future.isCancelled();
+                if (cancelled) {
+                    endpoint.release();
+                    if (permit != null) {
+                        permit.release();
+                    }
+                    if (slot != null) {
+                        slot.release();
+                    }
+                } else {
+                    endpoint.onComplete(durationNanos, error);
+                    if (permit != null) {
+                        permit.onResult(durationNanos, error);
+                    }
+                    if (slot != null) {
+                        client.getConcurrencyLimiter().onComplete(slot, durationNanos, error);
+                    }
+                }
+                complete(this, value, error, !cancelled);
+            });
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static long contentLength(Request request) {
+        RequestBody body = request.body();
+        if (body == null) {
+            return 0;
+        }
+        try {
+            return body.contentLength();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Waits for a call and rethrows its failure as thrown by the synchronous API.
+     */
+    static <R> R await(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new InterruptedIOException("Interrupted while waiting for the call");
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Canceled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
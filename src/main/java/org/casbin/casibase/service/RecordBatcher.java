@@ -0,0 +1,395 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.util.http.CasibaseResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@link RecordService#addRecord(Record)}.
+ * <p>
+ * Records are accepted on a lock-free queue and sent in the background, either when {@code batchSize} records are
+ * waiting or when the flush interval elapses, with at most {@code maxInFlight} requests outstanding at a time.
+ * The outcome of every record is reported to the {@link Listener}. When the queue is full the configured
+ * {@link OverflowPolicy} decides whether {@link #add(Record)} waits, evicts the oldest waiting record or rejects.
+ * <pre>
+ * try (RecordBatcher batcher = RecordBatcher.builder(recordService).batchSize(200).build()) {
+ *     batcher.add(record);
+ * }
+ * </pre>
+ */
+public class RecordBatcher implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        /** Wait until there is room in the queue. */
+        BLOCK,
+        /** Evict the oldest waiting record, reporting it as failed, to make room. */
+        DROP_OLDEST,
+        /** Reject the new record; {@link #add(Record)} returns false. */
+        FAIL
+    }
+
+    /**
+     * Receives the outcome of every record accepted by the batcher. Callbacks run on the client's decoder threads
+     * or on the batcher's own thread, so they should return quickly.
+     */
+    public interface Listener {
+        default void onSuccess(Record record, CasibaseResponse<String, Object> response) {
+        }
+
+        default void onFailure(Record record, Throwable error) {
+        }
+    }
+
+    private static final Listener NO_OP = new Listener() {
+    };
+
+    private final RecordService recordService;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Listener listener;
+
+    private final Queue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Semaphore inFlight;
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    // Only used by producers waiting under OverflowPolicy.BLOCK.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    // Producers between their closed check and their enqueue; close() waits for them before the final drain.
+    private final AtomicInteger adding = new AtomicInteger();
+    private volatile boolean closed;
+
+    private RecordBatcher(Builder builder) {
+        this.recordService = builder.recordService;
+        this.capacity = builder.capacity;
+        this.batchSize = builder.batchSize;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.listener = builder.listener;
+        this.inFlight = new Semaphore(builder.maxInFlight);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "casibase-record-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = builder.flushInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder(RecordService recordService) {
+        return new Builder(recordService);
+    }
+
+    /**
+     * Queues a record for sending. This never blocks unless the queue is full and the policy is {@link OverflowPolicy#BLOCK}.
+     *
+     * @param record The record to add.
+     * @return true if the record was queued; false if it was rejected because the batcher is closed or,
+     *         under {@link OverflowPolicy#FAIL}, because the queue is full. A queued record is always reported to the
+     *         listener, even when {@link #close()} runs concurrently.
+     */
+    public boolean add(Record record) {
+        adding.incrementAndGet();
+        try {
+            return enqueue(record);
+        } finally {
+            adding.decrementAndGet();
+        }
+    }
+
+    private boolean enqueue(Record record) {
+        if (closed) {
+            return false;
+        }
+        while (!tryReserve()) {
+            switch (overflowPolicy) {
+                case FAIL:
+                    return false;
+                case DROP_OLDEST:
+                    Record oldest = queue.poll();
+                    if (oldest != null) {
+                        notifyFailure(oldest, new RejectedExecutionException("Record dropped from a full batcher queue"));
+                        queue.add(record);
+                        return true;
+                    }
+                    // The queue is full but its records are being taken by a drain, or not added yet by the
+                    // producers that reserved their room; wait for either instead of spinning.
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                    break;
+                default:
+                    if (!awaitNotFull()) {
+                        return false;
+                    }
+            }
+        }
+        queue.add(record);
+        if (size.get() >= batchSize) {
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    /**
+     * Sends everything queued so far without waiting for the flush interval.
+     *
+     * @return A future completed once every record queued before the call has been acknowledged or has failed.
+     */
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        try {
+            scheduler.execute(() -> {
+                drain();
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                        .whenComplete((result, error) -> flushed.complete(null));
+            });
+        } catch (RejectedExecutionException e) {
+            flushed.complete(null);
+        }
+        return flushed;
+    }
+
+    /**
+     * @return The number of records waiting to be sent.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Stops accepting records, sends everything still queued and waits for the outstanding requests to complete.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        signalNotFull();
+        // Producers that got past the closed check before it was set finish their enqueue, or give up when blocked,
+        // so nothing can be queued after the final drain below.
+        while (adding.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        flush().join();
+        scheduler.shutdown();
+        // Pick up records whose drain the scheduler no longer runs.
+        drain();
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private boolean tryReserve() {
+        for (;;) {
+            int current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean awaitNotFull() {
+        waiters.incrementAndGet();
+        lock.lock();
+        try {
+            while (size.get() >= capacity) {
+                if (closed) {
+                    return false;
+                }
+                notFull.await(10, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    private void signalNotFull() {
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<Record> batch = new ArrayList<>(batchSize);
+        for (;;) {
+            Record record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            size.addAndGet(-batch.size());
+            signalNotFull();
+            for (Record item : batch) {
+                send(item);
+            }
+            batch.clear();
+        }
+    }
+
+    private void send(Record record) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            notifyFailure(record, e);
+            return;
+        }
+        // Track the outcome rather than the call, so flush() and close() return only after the listener has run.
+        CompletableFuture<Void> outcome = recordService.addRecordAsync(record).handle((response, error) -> {
+            inFlight.release();
+            if (error != null) {
+                notifyFailure(record, error);
+            } else {
+                notifySuccess(record, response);
+            }
+            return null;
+        });
+        pending.add(outcome);
+        outcome.whenComplete((result, error) -> pending.remove(outcome));
+    }
+
+    private void notifySuccess(Record record, CasibaseResponse<String, Object> response) {
+        try {
+            listener.onSuccess(record, response);
+        } catch (RuntimeException ignored) {
+            // A misbehaving listener must not stop the batcher.
+        }
+    }
+
+    private void notifyFailure(Record record, Throwable error) {
+        try {
+            listener.onFailure(record, error);
+        } catch (RuntimeException ignored) {
+            // A misbehaving listener must not stop the batcher.
+        }
+    }
+
+    public static class Builder {
+        private final RecordService recordService;
+        private int capacity = 10_000;
+        private int batchSize = 100;
+        private Duration flushInterval = Duration.ofMillis(200);
+        private int maxInFlight = 16;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Listener listener = NO_OP;
+
+        private Builder(RecordService recordService) {
+            this.recordService = recordService;
+        }
+
+        /** Maximum number of records waiting to be sent. Defaults to 10000. */
+        public Builder capacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive: " + capacity);
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /** Number of waiting records that triggers a flush before the interval elapses. Defaults to 100. */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /** Maximum time a record waits before being sent. Defaults to 200ms. */
+        public Builder flushInterval(Duration flushInterval) {
+            if (flushInterval.isNegative() || flushInterval.isZero()) {
+                throw new IllegalArgumentException("flushInterval must be positive: " + flushInterval);
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /** Maximum number of add-record requests outstanding at a time. Defaults to 16. */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /** What {@link #add(Record)} does when the queue is full. Defaults to {@link OverflowPolicy#BLOCK}. */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder listener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public RecordBatcher build() {
+            return new RecordBatcher(this);
+        }
+    }
+}
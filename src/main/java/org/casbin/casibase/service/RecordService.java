@@ -17,19 +17,37 @@
 package org.casbin.casibase.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.casbin.casibase.config.Config;
 import org.casbin.casibase.entity.Record;
 import org.casbin.casibase.util.AuthTypeEnum;
 import org.casbin.casibase.util.Map;
+import org.casbin.casibase.util.PageIterator;
+import org.casbin.casibase.util.PagePublisher;
 import org.casbin.casibase.util.RecordOperations;
 import org.casbin.casibase.util.http.CasibaseResponse;
 import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class RecordService extends Service{
 
+    private final ObjectReader recordReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Record, Object>>() {
+    });
+    private final ObjectReader recordListReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<List<Record>, Object>>() {
+    });
+    private final ObjectReader recordPageReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Record[], Object>>() {
+    });
+    private final ObjectReader recordElementReader = objectMapper.readerFor(Record.class);
+    private final ObjectReader modifyReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Object, Object>>() {
+    });
+    private final ObjectWriter recordWriter = objectMapper.writerFor(Record.class);
+
     public RecordService(Config config) {
         super(config);
     }
@@ -38,29 +56,129 @@ public class RecordService extends Service{
         super(config, authType);
     }
 
+    RecordService(CasibaseClient client) {
+        super(client);
+    }
+
     public Record getRecord(String name) throws IOException {
         CasibaseResponse<Record, Object> response = doGet(RecordOperations.GET_Record.getOperation(),
-                Map.of("id", config.organizationName + "/" + name), new TypeReference<CasibaseResponse<Record, Object>>() {
-                });
+                Map.of("id", config.organizationName + "/" + name), recordReader);
         return response.getData();
     }
 
     public List<Record> getRecords() throws IOException {
         CasibaseResponse<List<Record>, Object> response = doGet(RecordOperations.GET_Records.getOperation(),
-                Map.of("owner", config.organizationName), new TypeReference<CasibaseResponse<List<Record>, Object>>() {
-                });
+                Map.of("owner", config.organizationName), recordListReader);
         return response.getData();
     }
 
     public java.util.Map<String, Object> getPaginationRecords(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) throws IOException {
-        CasibaseResponse<Record[], Object> response = doGet(RecordOperations.GET_Record.getOperation(),
+        CasibaseResponse<Record[], Object> response = doGet(RecordOperations.GET_Records.getOperation(),
                 Map.mergeMap(Map.of("owner", config.organizationName,
                         "p", Integer.toString(p),
-                        "pageSize", Integer.toString(pageSize)), queryMap), new TypeReference<CasibaseResponse<Record[], Object>>() {
-                });
+                        "pageSize", Integer.toString(pageSize)), queryMap), recordPageReader);
         return Map.of("casibaseRecords", response.getData(), "data2", response.getData2());
     }
 
+    public CompletableFuture<Record> getRecordAsync(String name) {
+        return mapResult(this.<Record, Object>doGetAsync(RecordOperations.GET_Record.getOperation(),
+                Map.of("id", config.organizationName + "/" + name), recordReader), CasibaseResponse::getData);
+    }
+
+    public CompletableFuture<List<Record>> getRecordsAsync() {
+        return mapResult(this.<List<Record>, Object>doGetAsync(RecordOperations.GET_Records.getOperation(),
+                Map.of("owner", config.organizationName), recordListReader), CasibaseResponse::getData);
+    }
+
+    public CompletableFuture<java.util.Map<String, Object>> getPaginationRecordsAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return mapResult(getRecordPageAsync(p, pageSize, queryMap),
+                response -> Map.of("casibaseRecords", response.getData(), "data2", response.getData2()));
+    }
+
+    /**
+     * Lazily iterates over all records of the organization, fetching one page at a time and prefetching the next
+     * page while the current one is consumed.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Record> iterateRecords(int pageSize) {
+        return iterateRecords(pageSize, null);
+    }
+
+    /**
+     * Lazily iterates over the records matching the given query parameters (e.g. {@code sortField}, {@code field}
+     * and {@code value}), fetching one page at a time and prefetching the next page while the current one is consumed.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @param queryMap Additional query parameters sent with every page request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Record> iterateRecords(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getRecordPageAsync(p, size, queryMap), pageSize);
+    }
+
+    /**
+     * Iterates over the records matching the given query parameters, keeping up to {@code parallelism} pages in
+     * flight once the first page has reported the total.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether records are returned in page order or as soon as their page arrives.
+     * @param queryMap Additional query parameters sent with every page request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Record> iterateRecords(int pageSize, int parallelism, boolean ordered, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getRecordPageAsync(p, size, queryMap), pageSize, parallelism, ordered);
+    }
+
+    /**
+     * Streams all records of the organization page by page, holding at most two pages in memory.
+     * The stream's size estimate is the total reported by the server.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @return A sequential stream; close it to cancel the prefetched page when not fully consumed.
+     */
+    public Stream<Record> streamRecords(int pageSize) {
+        return iterateRecords(pageSize).stream();
+    }
+
+    public Stream<Record> streamRecords(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return iterateRecords(pageSize, queryMap).stream();
+    }
+
+    /**
+     * Streams all records of the organization, fetching up to {@code parallelism} pages concurrently.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether records are returned in page order or as soon as their page arrives.
+     * @return A sequential stream; close it to cancel the in-flight pages when not fully consumed.
+     */
+    public Stream<Record> streamRecords(int pageSize, int parallelism, boolean ordered) {
+        return iterateRecords(pageSize, parallelism, ordered, null).stream();
+    }
+
+    /**
+     * Publishes all records of the organization to a Reactive Streams subscriber. Pages are fetched only as the
+     * subscriber requests more records, and each page is buffered as it arrives, so a slow subscriber holds no call
+     * open.
+     *
+     * @param pageSize The number of records fetched per request.
+     * @return A cold publisher; every subscriber walks the listing on its own.
+     * @see PagePublisher
+     */
+    public Publisher<Record> publishRecords(int pageSize) {
+        return publishRecords(pageSize, null);
+    }
+
+    public Publisher<Record> publishRecords(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PagePublisher<>((p, size, reader) -> doGetStreamingAsync(RecordOperations.GET_Records.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(size)), queryMap), reader), recordElementReader, pageSize);
+    }
+
     public CasibaseResponse<String, Object> addRecord(Record record) throws IOException {
         return modifyRecord(RecordOperations.ADD_Record,record,null);
     }
@@ -73,13 +191,45 @@ public class RecordService extends Service{
         return modifyRecord(RecordOperations.UPDATE_Record,record,null);
     }
 
+    public CompletableFuture<CasibaseResponse<String, Object>> addRecordAsync(Record record) {
+        return modifyRecordAsync(RecordOperations.ADD_Record, record, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> deleteRecordAsync(Record record) {
+        return modifyRecordAsync(RecordOperations.DELETE_Record, record, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> updateRecordAsync(Record record) {
+        return modifyRecordAsync(RecordOperations.UPDATE_Record, record, null);
+    }
+
+    private CompletableFuture<CasibaseResponse<Record[], Object>> getRecordPageAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return doGetAsync(RecordOperations.GET_Records.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(pageSize)), queryMap), recordPageReader);
+    }
+
     private <T1, T2> CasibaseResponse modifyRecord(RecordOperations method, Record record, java.util.Map<String, String> queryMap) throws IOException {
         String id = record.owner + "/" + record.name;
         record.owner = config.organizationName;
-        String payload = objectMapper.writeValueAsString(record);
+        String payload = recordWriter.writeValueAsString(record);
 
         return doPost(method.getOperation(), Map.mergeMap(Map.of("id", id), queryMap), payload,
-                new TypeReference<CasibaseResponse<T1, T2>>() {
-                });
+                modifyReader);
+    }
+
+    private CompletableFuture<CasibaseResponse<String, Object>> modifyRecordAsync(RecordOperations method, Record record, java.util.Map<String, String> queryMap) {
+        String id = record.owner + "/" + record.name;
+        record.owner = config.organizationName;
+        String payload;
+        try {
+            payload = recordWriter.writeValueAsString(record);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+
+        return doPostAsync(method.getOperation(), Map.mergeMap(Map.of("id", id), queryMap), payload,
+                modifyReader);
     }
 }
@@ -0,0 +1,404 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import org.casbin.casibase.entity.Record;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Incremental reader of the records of an organization: every {@link #poll()} returns the records created after the
+ * {@link Watermark} of the previous batch, oldest first, instead of listing the whole history again.
+ * <p>
+ * The server cannot filter by time, so a poll walks {@code get-records} sorted by {@code createdTime}, oldest first,
+ * where new records are only ever appended. The sync remembers the page holding the last record it collected and
+ * resumes there, so a poll costs the new records plus at most one page. Without that page, e.g. after a restart or
+ * once records were deleted, the page holding the watermark is found by a binary search over the pages. Records
+ * sharing the watermark's {@code createdTime} are told apart by their {@code id}.
+ * <p>
+ * One poll collects about {@code maxBatchSize} records, finishing the records of the newest {@code createdTime} it
+ * reached, and hands them out in batches of at most {@code maxBatchSize}; catching up with a long history takes as
+ * many polls as it needs, holding little more than one batch in memory at a time. To resume after a restart,
+ * persist {@link Batch#getWatermark()} once the batch is processed and pass it back through
+ * {@link Builder#watermark(Watermark)}.
+ * <pre>
+ * RecordSync sync = RecordSync.builder(client.records()).watermark(Watermark.parse(saved)).build();
+ * RecordSync.Batch batch = sync.poll();
+ * mirror.write(batch.getRecords());
+ * save(batch.getWatermark().toString());
+ * </pre>
+ * A sync is meant to be polled by one thread at a time.
+ */
+public class RecordSync {
+
+    /**
+     * Orders records by creation time, then by id.
+     */
+    public static final Comparator<Record> ORDER = (a, b) -> {
+        int byTime = compareTimes(a.createdTime, b.createdTime);
+        return byTime != 0 ? byTime : Integer.compare(a.id, b.id);
+    };
+
+    /**
+     * The position of the newest record handed out: its {@code createdTime} and {@code id}.
+     */
+    public static final class Watermark {
+        /** Before every record. */
+        public static final Watermark NONE = new Watermark(null, 0);
+
+        @Nullable
+        private final String createdTime;
+        private final int id;
+
+        private Watermark(@Nullable String createdTime, int id) {
+            this.createdTime = createdTime;
+            this.id = id;
+        }
+
+        public static Watermark of(String createdTime, int id) {
+            return new Watermark(Objects.requireNonNull(createdTime, "createdTime"), id);
+        }
+
+        public static Watermark of(Record record) {
+            return of(record.createdTime == null ? "" : record.createdTime, record.id);
+        }
+
+        /**
+         * Restores a watermark saved with {@link #toString()}.
+         *
+         * @throws IllegalArgumentException If the text is not a saved watermark.
+         */
+        public static Watermark parse(@Nullable String text) {
+            if (text == null || text.isEmpty()) {
+                return NONE;
+            }
+            int slash = text.indexOf('/');
+            if (slash < 0) {
+                throw new IllegalArgumentException("Not a record watermark: " + text);
+            }
+            try {
+                return of(text.substring(slash + 1), Integer.parseInt(text.substring(0, slash)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a record watermark: " + text, e);
+            }
+        }
+
+        @Nullable
+        public String getCreatedTime() {
+            return createdTime;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Whether the record was created after this watermark.
+         */
+        public boolean isBefore(Record record) {
+            if (createdTime == null) {
+                return true;
+            }
+            int byTime = compareTimes(record.createdTime, createdTime);
+            return byTime > 0 || (byTime == 0 && record.id > id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Watermark)) {
+                return false;
+            }
+            Watermark that = (Watermark) o;
+            return id == that.id && Objects.equals(createdTime, that.createdTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(createdTime, id);
+        }
+
+        /**
+         * @return {@code id/createdTime}, or an empty string for {@link #NONE}; readable by {@link #parse(String)}.
+         */
+        @Override
+        public String toString() {
+            return createdTime == null ? "" : id + "/" + createdTime;
+        }
+    }
+
+    /**
+     * Records handed out by one poll, oldest first, and the watermark just after them.
+     */
+    public static final class Batch {
+        private final List<Record> records;
+        private final Watermark watermark;
+
+        Batch(List<Record> records, Watermark watermark) {
+            this.records = records;
+            this.watermark = watermark;
+        }
+
+        public List<Record> getRecords() {
+            return records;
+        }
+
+        public Watermark getWatermark() {
+            return watermark;
+        }
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private final RecordService recordService;
+    private final int pageSize;
+    private final int maxBatchSize;
+    private final java.util.Map<String, String> queryMap;
+
+    private final Deque<Record> pending = new ArrayDeque<>();
+    private Watermark watermark;
+    // The page holding the last record collected, where the next walk resumes; 0 while unknown.
+    private int resumePage;
+    private long pagesFetched;
+
+    private RecordSync(Builder builder) {
+        this.recordService = builder.recordService;
+        this.pageSize = builder.pageSize;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.watermark = builder.watermark;
+        this.resumePage = watermark.equals(Watermark.NONE) ? 1 : 0;
+        this.queryMap = new HashMap<>(builder.queryMap);
+        this.queryMap.put("sortField", "createdTime");
+        this.queryMap.put("sortOrder", "ascend");
+    }
+
+    public static Builder builder(RecordService recordService) {
+        return new Builder(recordService);
+    }
+
+    /**
+     * Returns the next records after the watermark, oldest first, and moves the watermark past them. Records already
+     * collected by an earlier poll are handed out before the server is asked again.
+     *
+     * @return The batch; empty when there is nothing new.
+     * @throws IOException If a page cannot be fetched. The watermark is left where it was.
+     */
+    public Batch poll() throws IOException {
+        if (pending.isEmpty()) {
+            collect();
+        }
+        int size = Math.min(maxBatchSize, pending.size());
+        List<Record> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(pending.poll());
+        }
+        if (!records.isEmpty()) {
+            watermark = Watermark.of(records.get(records.size() - 1));
+        }
+        return new Batch(Collections.unmodifiableList(records), watermark);
+    }
+
+    /**
+     * @return The watermark of the last batch handed out.
+     */
+    public Watermark getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * @return The number of records collected but not handed out yet.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * @return The number of pages fetched by all polls so far.
+     */
+    public long getPagesFetched() {
+        return pagesFetched;
+    }
+
+    private void collect() throws IOException {
+        int p = resumePage > 0 ? resumePage : locate();
+        Record[] page = fetch(p);
+        if (p > 1 && (page.length == 0 || watermark.isBefore(page[0]))) {
+            // records before the watermark were deleted and the pages moved up
+            p = locate();
+            page = fetch(p);
+        }
+        resumePage = p;
+        List<Record> newer = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (;;) {
+            for (Record record : page) {
+                if (watermark.isBefore(record) && seen.add(record.name)) {
+                    newer.add(record);
+                    resumePage = p;
+                }
+            }
+            if (page.length < pageSize) {
+                break;
+            }
+            p++;
+            page = fetch(p);
+            if (newer.size() >= maxBatchSize) {
+                // enough for now, except for the records sharing the newest createdTime, whose ids the watermark
+                // cannot tell apart from later pages
+                String newest = newer.get(newer.size() - 1).createdTime;
+                if (page.length == 0 || compareTimes(page[0].createdTime, newest) != 0) {
+                    break;
+                }
+                while (page.length == pageSize && compareTimes(page[page.length - 1].createdTime, newest) == 0) {
+                    addTies(page, newest, newer, seen, p);
+                    p++;
+                    page = fetch(p);
+                }
+                addTies(page, newest, newer, seen, p);
+                break;
+            }
+        }
+        newer.sort(ORDER);
+        pending.addAll(newer);
+    }
+
+    private void addTies(Record[] page, @Nullable String createdTime, List<Record> newer, Set<String> seen, int p) {
+        for (Record record : page) {
+            if (compareTimes(record.createdTime, createdTime) == 0
+                    && watermark.isBefore(record) && seen.add(record.name)) {
+                newer.add(record);
+                resumePage = p;
+            }
+        }
+    }
+
+    /**
+     * Finds the last page starting at or before the watermark, doubling the page number and then bisecting, so a
+     * long history costs a few pages rather than all of them.
+     */
+    private int locate() throws IOException {
+        int before = 1;
+        int after = 2;
+        while (startsAtOrBeforeWatermark(after)) {
+            before = after;
+            if (after > Integer.MAX_VALUE / 2) {
+                return before;
+            }
+            after *= 2;
+        }
+        while (after - before > 1) {
+            int mid = (before + after) >>> 1;
+            if (startsAtOrBeforeWatermark(mid)) {
+                before = mid;
+            } else {
+                after = mid;
+            }
+        }
+        return before;
+    }
+
+    private boolean startsAtOrBeforeWatermark(int p) throws IOException {
+        Record[] page = fetch(p);
+        return page.length > 0 && !watermark.isBefore(page[0]);
+    }
+
+    private Record[] fetch(int p) throws IOException {
+        Record[] page = (Record[]) recordService.getPaginationRecords(p, pageSize, queryMap).get("casibaseRecords");
+        pagesFetched++;
+        return page != null ? page : new Record[0];
+    }
+
+    /**
+     * Compares two creation times as instants when both are RFC 3339 timestamps, and as text otherwise.
+     */
+    static int compareTimes(@Nullable String a, @Nullable String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        try {
+            return OffsetDateTime.parse(a).toInstant().compareTo(OffsetDateTime.parse(b).toInstant());
+        } catch (DateTimeParseException e) {
+            return a.compareTo(b);
+        }
+    }
+
+    public static class Builder {
+        private final RecordService recordService;
+        private int pageSize = 100;
+        private int maxBatchSize = 1000;
+        private Watermark watermark = Watermark.NONE;
+        private java.util.Map<String, String> queryMap = Collections.emptyMap();
+
+        private Builder(RecordService recordService) {
+            this.recordService = recordService;
+        }
+
+        /** Number of records fetched per request. Defaults to 100. */
+        public Builder pageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /** Maximum number of records handed out by one poll. Defaults to 1000. */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /** Where to resume, typically a watermark saved from an earlier batch. Defaults to {@link Watermark#NONE}. */
+        public Builder watermark(Watermark watermark) {
+            this.watermark = Objects.requireNonNull(watermark, "watermark");
+            return this;
+        }
+
+        /**
+         * Additional query parameters sent with every page request, e.g. {@code field} and {@code value} to follow
+         * a subset of the records. The sort parameters are set by the sync.
+         */
+        public Builder queryMap(java.util.Map<String, String> queryMap) {
+            this.queryMap = new HashMap<>(queryMap);
+            return this;
+        }
+
+        public RecordSync build() {
+            return new RecordSync(this);
+        }
+    }
+}
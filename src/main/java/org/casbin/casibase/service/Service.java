@@ -17,92 +17,325 @@
 package org.casbin.casibase.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import okhttp3.Credentials;
+import okhttp3.Request;
 import org.casbin.casibase.config.Config;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MurmurHash3;
 import org.casbin.casibase.exception.Exception;
+import org.casbin.casibase.metrics.CasibaseMetrics;
 import org.casbin.casibase.util.AuthTypeEnum;
+import org.casbin.casibase.util.CountingInputStream;
 import org.casbin.casibase.util.Map;
 import org.casbin.casibase.util.http.CasibaseResponse;
 import org.casbin.casibase.util.http.HttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 public class Service {
-    protected final ObjectMapper objectMapper = new ObjectMapper(){{
-        configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    }};
+    /**
+     * Mapper shared by services created without a {@link CasibaseClient}. ObjectMapper is thread-safe once configured,
+     * so there is no reason for every service to build its own and warm up its own serializer caches.
+     */
+    private static final ObjectMapper DEFAULT_OBJECT_MAPPER = CasibaseClient.newObjectMapper();
+
+    /**
+     * Mapper of this service. Subclasses should derive their {@link ObjectReader}s and {@link com.fasterxml.jackson.databind.ObjectWriter}s
+     * from it once, at construction time, and pass those to the {@code doGet}/{@code doPost} overloads that take a reader:
+     * the type is then resolved once instead of on every call.
+     */
+    protected final ObjectMapper objectMapper;
 
     protected final Config config;
     protected final String credential;
+
+    /**
+     * The client this service belongs to, or null for services created directly from a {@link Config},
+     * which use the shared http client of {@link HttpClient}.
+     */
+    @Nullable
+    protected final CasibaseClient client;
+
     protected Service(Config config) {
-        this.config = config;
-        this.credential = Credentials.basic(config.clientId, config.clientSecret);
+        this(config, AuthTypeEnum.BASIC);
     }
 
     protected Service(Config config, AuthTypeEnum authType) {
         this.config = config;
+        this.credential = credential(config, authType);
+        this.objectMapper = DEFAULT_OBJECT_MAPPER;
+        this.client = null;
+    }
+
+    protected Service(CasibaseClient client) {
+        this.config = client.getConfig();
+        this.credential = client.getCredential();
+        this.objectMapper = client.getObjectMapper();
+        this.client = client;
+    }
+
+    static String credential(Config config, AuthTypeEnum authType) {
         switch (authType){
             case BASIC:
-                this.credential = Credentials.basic(config.clientId, config.clientSecret);
-                break;
+                return Credentials.basic(config.clientId, config.clientSecret);
             case BEARER:
                 String token = config.clientId + ":" + config.clientSecret;
-                this.credential = "Bearer " + DigestUtils.md5Hex(token);
-                break;
+                return "Bearer " + DigestUtils.md5Hex(token);
             default:
                 throw new Exception("Invalid auth type");
         }
     }
 
     protected <T1, T2> CasibaseResponse<T1, T2> doGet(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
-        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
-        String response = HttpClient.syncGet(url, credential);
-        CasibaseResponse<T1, T2> resp = objectMapper.readValue(response, typeReference);
-        if (!Objects.equals(resp.getStatus(), "ok")) {
-            throw new Exception(String.format("Failed fetching %s : %s", url, resp.getMsg()));
-        }
+        return doGet(action, queryParams, objectMapper.readerFor(typeReference));
+    }
 
-        return resp;
+    protected <T1, T2> CasibaseResponse<T1, T2> doGet(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, ObjectReader responseReader) throws IOException {
+        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
+        return send(action, HttpClient.getRequest(url, credential), responseReader);
     }
 
     protected <T1, T2> CasibaseResponse<T1, T2> doPost(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, java.util.Map<String, String> postForm, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
+        return doPost(action, queryParams, postForm, objectMapper.readerFor(typeReference));
+    }
+
+    protected <T1, T2> CasibaseResponse<T1, T2> doPost(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, java.util.Map<String, String> postForm, ObjectReader responseReader) throws IOException {
         String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
-        String response = HttpClient.postForm(url, postForm, credential);
-        CasibaseResponse<T1, T2> resp = objectMapper.readValue(response, typeReference);
-        if (!Objects.equals(resp.getStatus(), "ok")) {
-            throw new Exception(String.format("Failed fetching %s : %s", url, resp.getMsg()));
+        return send(action, HttpClient.postFormRequest(url, postForm, credential), responseReader);
+    }
+
+    protected <T1, T2> CasibaseResponse<T1, T2> doPost(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, String postString, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
+        return doPost(action, queryParams, postString, objectMapper.readerFor(typeReference));
+    }
+
+    protected <T1, T2> CasibaseResponse<T1, T2> doPost(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, String postString, ObjectReader responseReader) throws IOException {
+        return send(action, HttpClient.postStringRequest(postUrl(action, queryParams), postString, credential), responseReader);
+    }
+
+    protected <T1, T2> CasibaseResponse<T1, T2> doPost(String action, @Nullable java.util.Map<String, String> queryParams, File postFile, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
+        return doPost(action, queryParams, postFile, objectMapper.readerFor(typeReference));
+    }
+
+    protected <T1, T2> CasibaseResponse<T1, T2> doPost(String action, @Nullable java.util.Map<String, String> queryParams, File postFile, ObjectReader responseReader) throws IOException {
+        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
+        return send(action, HttpClient.postFileRequest(url, postFile, credential), responseReader);
+    }
+
+    protected <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> doGetAsync(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, TypeReference<CasibaseResponse<T1, T2>> typeReference) {
+        return doGetAsync(action, queryParams, objectMapper.readerFor(typeReference));
+    }
+
+    protected <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> doGetAsync(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, ObjectReader responseReader) {
+        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
+        return sendAsync(action, HttpClient.getRequest(url, credential), responseReader);
+    }
+
+    protected <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> doPostAsync(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, String postString, TypeReference<CasibaseResponse<T1, T2>> typeReference) {
+        return doPostAsync(action, queryParams, postString, objectMapper.readerFor(typeReference));
+    }
+
+    protected <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> doPostAsync(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, String postString, ObjectReader responseReader) {
+        return sendAsync(action, HttpClient.postStringRequest(postUrl(action, queryParams), postString, credential), responseReader);
+    }
+
+    /**
+     * Sends a GET and hands the open body to the given reader on a decoder thread, so the response can be consumed
+     * at the pace of its reader. Calls of a client go through the same retries, limits and metrics as any other call,
+     * but are never coalesced or revalidated: both need a decoded result to share.
+     *
+     * @return A future completed with the value produced by the reader. Cancelling it cancels the call.
+     */
+    protected <R> CompletableFuture<R> doGetStreamingAsync(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, HttpClient.BodyReader<R> bodyReader) {
+        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
+        Request request = HttpClient.getRequest(url, credential);
+        if (client == null) {
+            return HttpClient.enqueue(HttpClient.getHttpClient(), request, response -> bodyReader.read(Objects.requireNonNull(response.body()).byteStream()));
         }
+        return new Invocation<R>(client, action, request, attempt -> response -> {
+            attempt.responseReceived();
+            return bodyReader.read(attempt.countReceived(Objects.requireNonNull(response.body()).byteStream()));
+        }, false).start();
+    }
 
-        return resp;
+    /**
+     * Maps the result of a call like {@link CompletableFuture#thenApply}, which does not pass cancellation back to the
+     * call; cancelling the returned future cancels the call as well.
+     */
+    protected static <T, U> CompletableFuture<U> mapResult(CompletableFuture<T> call, java.util.function.Function<? super T, ? extends U> mapper) {
+        return forwardCancellation(call.thenApply(mapper), call);
     }
 
-    protected <T1, T2> CasibaseResponse<T1, T2> doPost(@NotNull String action, @Nullable java.util.Map<String, String> queryParams, String postString, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
-        String url;
+    /**
+     * Cancels the call when the future derived from it is cancelled.
+     *
+     * @return The derived future.
+     */
+    protected static <U> CompletableFuture<U> forwardCancellation(CompletableFuture<U> derived, CompletableFuture<?> call) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                call.cancel(false);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Returns a future that is already completed exceptionally with the given error,
+     * used by the async variants to report failures that happen before a request is sent.
+     */
+    protected static <T> CompletableFuture<T> failedFuture(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * Every synchronous call goes through here. Identical GETs of coalesced operations share one exchange.
+     */
+    private <T1, T2> CasibaseResponse<T1, T2> send(String action, Request request, ObjectReader responseReader) throws IOException {
+        if (isCoalesced(action, request)) {
+            return client.getSingleFlight().execute(request.url().toString(), () -> exchange(action, request, responseReader));
+        }
+        return exchange(action, request, responseReader);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #send(String, Request, ObjectReader)}. Unless the call is shared, the returned
+     * future is the one of the call itself, so cancelling it still cancels the call.
+     */
+    private <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> sendAsync(String action, Request request, ObjectReader responseReader) {
+        if (isCoalesced(action, request)) {
+            return client.getSingleFlight().executeAsync(request.url().toString(), () -> exchangeAsync(action, request, responseReader));
+        }
+        return exchangeAsync(action, request, responseReader);
+    }
+
+    private boolean isCoalesced(String action, Request request) {
+        return client != null && "GET".equals(request.method()) && client.isCoalesced(action);
+    }
+
+    /**
+     * Performs the call. Calls of a client are timed, counted and retried by an {@link Invocation}; services created
+     * directly from a {@link Config} send a single request on the shared http client.
+     */
+    private <T1, T2> CasibaseResponse<T1, T2> exchange(String action, Request request, ObjectReader responseReader) throws IOException {
+        if (client == null) {
+            return HttpClient.execute(HttpClient.getHttpClient(), request, jsonReader(request, responseReader, null));
+        }
+        return Invocation.await(this.<T1, T2>invocation(action, request, responseReader, true).start());
+    }
+
+    private <T1, T2> CompletableFuture<CasibaseResponse<T1, T2>> exchangeAsync(String action, Request request, ObjectReader responseReader) {
+        if (client == null) {
+            return HttpClient.enqueue(HttpClient.getHttpClient(), request, Service.<T1, T2>jsonReader(request, responseReader, null));
+        }
+        return this.<T1, T2>invocation(action, request, responseReader, false).start();
+    }
+
+    private <T1, T2> Invocation<CasibaseResponse<T1, T2>> invocation(String action, Request request, ObjectReader responseReader, boolean blocking) {
+        ConditionalGets conditionalGets = conditionalGets(action, request);
+        if (conditionalGets == null) {
+            return new Invocation<>(client, action, request, attempt -> jsonReader(request, responseReader, attempt), blocking);
+        }
+        ConditionalGets.Entry previous = conditionalGets.get(request.url().toString());
+        return new Invocation<>(client, action, previous != null ? previous.conditional(request) : request,
+                attempt -> conditionalReader(conditionalGets, request, responseReader, attempt, previous), blocking);
+    }
+
+    @Nullable
+    private ConditionalGets conditionalGets(String action, Request request) {
+        ConditionalGets conditionalGets = client != null ? client.getConditionalGets() : null;
+        return conditionalGets != null && conditionalGets.covers(action, request) ? conditionalGets : null;
+    }
+
+    private String postUrl(@NotNull String action, @Nullable java.util.Map<String, String> queryParams) {
         if(queryParams != null){
-            url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
+            return String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
         }else {
-            url = String.format("%s/api/%s", config.endpoint, action);
-        }
-        String response = HttpClient.postString(url, postString, credential);
-        CasibaseResponse<T1, T2> resp = objectMapper.readValue(response, typeReference);
-        if (!Objects.equals(resp.getStatus(), "ok")) {
-            throw new Exception(String.format("Failed fetching %s : %s", url, resp.getMsg()));
+            return String.format("%s/api/%s", config.endpoint, action);
         }
+    }
 
-        return resp;
+    /**
+     * Decodes the response body straight from its byte stream, so large listings never exist as one big string,
+     * and rejects responses whose status is not "ok". The size of the body is recorded on the response.
+     */
+    private static <T1, T2> HttpClient.ResponseReader<CasibaseResponse<T1, T2>> jsonReader(Request request, ObjectReader responseReader, @Nullable CasibaseMetrics.Sample.Attempt attempt) {
+        return response -> {
+            InputStream body = Objects.requireNonNull(response.body()).byteStream();
+            if (attempt != null) {
+                attempt.responseReceived();
+                body = attempt.countReceived(body);
+            }
+            CountingInputStream counting = new CountingInputStream(body);
+            CasibaseResponse<T1, T2> resp = responseReader.readValue(counting);
+            resp.setBodySize(counting.getCount());
+            return checkStatus(request.url().toString(), resp);
+        };
     }
 
-    protected <T1, T2> CasibaseResponse<T1, T2> doPost(String action, @Nullable java.util.Map<String, String> queryParams, File postFile, TypeReference<CasibaseResponse<T1, T2>> typeReference) throws IOException {
-        String url = String.format("%s/api/%s?%s", config.endpoint, action, Map.mapToUrlParams(queryParams));
-        String response = HttpClient.postFile(url, postFile, credential);
-        CasibaseResponse<T1, T2> resp = objectMapper.readValue(response, typeReference);
+    /**
+     * Resolves a revalidated GET: a 304, or a body identical to the previous one, yields the previously decoded
+     * response without running Jackson; anything else is decoded and remembered with its validators.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T1, T2> HttpClient.ResponseReader<CasibaseResponse<T1, T2>> conditionalReader(ConditionalGets conditionalGets, Request request, ObjectReader responseReader,
+                                                                                                   CasibaseMetrics.Sample.Attempt attempt, @Nullable ConditionalGets.Entry previous) {
+        String url = request.url().toString();
+        return response -> {
+            attempt.responseReceived();
+            if (response.code() == HttpClient.HTTP_NOT_MODIFIED && previous != null) {
+                conditionalGets.put(url, previous);
+                return (CasibaseResponse<T1, T2>) previous.response;
+            }
+
+            InputStream body = Objects.requireNonNull(response.body()).byteStream();
+            body = attempt.countReceived(body);
+            String etag = response.header("ETag");
+            String lastModified = response.header("Last-Modified");
+            if (etag == null && lastModified == null) {
+                byte[] bytes = readFully(body);
+                long[] hash = MurmurHash3.hash128x64(bytes);
+                if (previous != null && previous.hasBody(hash)) {
+                    conditionalGets.put(url, previous);
+                    return (CasibaseResponse<T1, T2>) previous.response;
+                }
+                CasibaseResponse<T1, T2> resp = responseReader.readValue(bytes);
+                resp.setBodySize(bytes.length);
+                checkStatus(url, resp);
+                conditionalGets.put(url, new ConditionalGets.Entry(null, null, hash, resp, bytes.length));
+                return resp;
+            }
+
+            CountingInputStream counting = new CountingInputStream(body);
+            CasibaseResponse<T1, T2> resp = responseReader.readValue(counting);
+            resp.setBodySize(counting.getCount());
+            checkStatus(url, resp);
+            conditionalGets.put(url, new ConditionalGets.Entry(etag, lastModified, null, resp, counting.getCount()));
+            return resp;
+        };
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static <T1, T2> CasibaseResponse<T1, T2> checkStatus(String url, CasibaseResponse<T1, T2> resp) {
         if (!Objects.equals(resp.getStatus(), "ok")) {
             throw new Exception(String.format("Failed fetching %s : %s", url, resp.getMsg()));
         }
@@ -0,0 +1,157 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one call and its result.
+ * <p>
+ * The first caller for a key runs the call; callers arriving while it is in flight wait for its outcome instead of
+ * starting their own. The key is released as soon as the call completes, so a caller arriving afterwards always
+ * starts a fresh call and never sees an older result. Async waiters get their own future: cancelling it detaches only
+ * that waiter, and the shared call is cancelled once every waiter of an async call has cancelled.
+ */
+class SingleFlight {
+    @FunctionalInterface
+    interface Call<R> {
+        R call() throws IOException;
+    }
+
+    private static class Flight<R> {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger(1);
+        @Nullable
+        volatile CompletableFuture<?> call;
+
+        /**
+         * @return A future for one more waiter, or null if every waiter already cancelled and the flight is abandoned.
+         */
+        @Nullable
+        CompletableFuture<R> join() {
+            int n;
+            do {
+                n = waiters.get();
+                if (n == 0) {
+                    return null;
+                }
+            } while (!waiters.compareAndSet(n, n + 1));
+            return waiter();
+        }
+
+        CompletableFuture<R> waiter() {
+            CompletableFuture<R> waiter = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error == null) {
+                    waiter.complete(value);
+                } else {
+                    waiter.completeExceptionally(error);
+                }
+            });
+            waiter.whenComplete((value, error) -> {
+                if (waiter.isCancelled()) {
+                    leave();
+                }
+            });
+            return waiter;
+        }
+
+        void leave() {
+            CompletableFuture<?> call = this.call;
+            if (waiters.decrementAndGet() == 0 && call != null) {
+                call.cancel(false);
+            }
+        }
+    }
+
+    private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call on the current thread, or waits for the identical call already in flight.
+     */
+    <R> R execute(String key, Call<R> call) throws IOException {
+        while (true) {
+            Flight<R> flight = new Flight<>();
+            Flight<R> existing = putIfAbsent(key, flight);
+            if (existing == null) {
+                // The waiter count of a synchronous leader never drops to zero: its call cannot be cancelled.
+                try {
+                    R value = call.call();
+                    flights.remove(key, flight);
+                    flight.result.complete(value);
+                    return value;
+                } catch (IOException | RuntimeException e) {
+                    flights.remove(key, flight);
+                    flight.result.completeExceptionally(e);
+                    throw e;
+                }
+            }
+
+            CompletableFuture<R> waiter = existing.join();
+            if (waiter != null) {
+                return Invocation.await(waiter);
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    /**
+     * Starts the call, or joins the identical call already in flight.
+     */
+    <R> CompletableFuture<R> executeAsync(String key, Supplier<CompletableFuture<R>> call) {
+        while (true) {
+            Flight<R> flight = new Flight<>();
+            Flight<R> existing = putIfAbsent(key, flight);
+            if (existing == null) {
+                CompletableFuture<R> waiter = flight.waiter();
+                CompletableFuture<R> future = call.get();
+                flight.call = future;
+                future.whenComplete((value, error) -> {
+                    flights.remove(key, flight);
+                    if (error == null) {
+                        flight.result.complete(value);
+                    } else {
+                        flight.result.completeExceptionally(error);
+                    }
+                });
+                if (flight.waiters.get() == 0) {
+                    future.cancel(false);
+                }
+                return waiter;
+            }
+
+            CompletableFuture<R> waiter = existing.join();
+            if (waiter != null) {
+                return waiter;
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <R> Flight<R> putIfAbsent(String key, Flight<R> flight) {
+        return (Flight<R>) flights.putIfAbsent(key, flight);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.service;
+
+import org.casbin.casibase.entity.Store;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A local copy of all stores of the organization for threads that read them on every request. Lookups read one
+ * volatile field and do one hash lookup in an immutable map: no locks, no network, no cache bookkeeping.
+ * <p>
+ * The replica refreshes itself in the background from the listing of {@link StoreService#getStores()}, read from the
+ * server every time even when the client caches stores, so the age of a snapshot is the age of its data. A
+ * {@link ChangeFeed} works out which stores changed, those are applied to a copy of the current map, and the copy is
+ * published in one volatile write, so a reader sees either the old snapshot or the new one, never a mix. Every refresh
+ * that changes something raises the snapshot's version; every successful refresh resets its age. A refresh that fails
+ * leaves the snapshot as it was and lets it age, which is what {@link #getAge()} is for.
+ * <p>
+ * Stores are shared by all readers of a snapshot and must not be modified.
+ * <pre>
+ * StoreReplica replica = StoreReplica.builder(client.stores()).refreshInterval(Duration.ofSeconds(10)).build();
+ * replica.start();
+ * Store store = replica.get("store-built-in");
+ * </pre>
+ */
+public class StoreReplica implements AutoCloseable {
+
+    /**
+     * An immutable view of the stores at one point in time.
+     */
+    public static final class Snapshot {
+        private final java.util.Map<String, Store> stores;
+        private final long version;
+        private final long refreshedNanos;
+        private final Instant refreshedAt;
+
+        Snapshot(java.util.Map<String, Store> stores, long version, long refreshedNanos, Instant refreshedAt) {
+            this.stores = stores;
+            this.version = version;
+            this.refreshedNanos = refreshedNanos;
+            this.refreshedAt = refreshedAt;
+        }
+
+        @Nullable
+        public Store get(String name) {
+            return stores.get(name);
+        }
+
+        /**
+         * @return The stores by name; unmodifiable.
+         */
+        public java.util.Map<String, Store> getStores() {
+            return stores;
+        }
+
+        /**
+         * @return The number of refreshes that changed the stores; 0 before the first refresh.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return When the stores were last read successfully.
+         */
+        public Instant getRefreshedAt() {
+            return refreshedAt;
+        }
+
+        /**
+         * @return The time since the stores were last read successfully.
+         */
+        public Duration getAge() {
+            return Duration.ofNanos(System.nanoTime() - refreshedNanos);
+        }
+    }
+
+    private final ChangeFeed<Store> feed;
+    private final long refreshIntervalNanos;
+
+    private volatile Snapshot snapshot;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    @Nullable
+    private volatile Throwable lastError;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private StoreReplica(Builder builder) {
+        this.feed = ChangeFeed.stores(builder.storeService).build();
+        this.refreshIntervalNanos = builder.refreshInterval.toNanos();
+        this.snapshot = new Snapshot(Collections.emptyMap(), 0, System.nanoTime(), Instant.now());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "casibase-store-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder(StoreService storeService) {
+        return new Builder(storeService);
+    }
+
+    /**
+     * Loads the stores and then keeps refreshing them in the background. Calling it again has no effect.
+     *
+     * @throws IOException If the first load fails; background refreshes are scheduled anyway.
+     * @throws IllegalStateException If the replica is closed.
+     */
+    public void start() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The store replica is closed");
+        }
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresh();
+        } finally {
+            try {
+                scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalNanos, refreshIntervalNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed meanwhile
+            }
+        }
+    }
+
+    /**
+     * Returns a store of the current snapshot.
+     *
+     * @param name The name of the store.
+     * @return The store, or null if the organization has no such store or the replica has not been loaded yet.
+     */
+    @Nullable
+    public Store get(String name) {
+        return snapshot.get(name);
+    }
+
+    /**
+     * @return The current snapshot. Keep using the same snapshot for lookups that must be consistent with each other.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    public Duration getAge() {
+        return snapshot.getAge();
+    }
+
+    /**
+     * @return The number of refreshes that failed so far.
+     */
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * @return The failure of the last refresh, or null if it succeeded.
+     */
+    @Nullable
+    public Throwable getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Reads the stores now and publishes a new snapshot.
+     *
+     * @throws IOException If the stores cannot be read; the current snapshot is kept.
+     */
+    public void refresh() throws IOException {
+        refreshLock.lock();
+        try {
+            List<ChangeFeed.Change<Store>> changes = feed.poll();
+            Snapshot current = snapshot;
+            java.util.Map<String, Store> stores = current.stores;
+            long version = current.version;
+            if (!changes.isEmpty()) {
+                java.util.Map<String, Store> copy = new HashMap<>(stores);
+                for (ChangeFeed.Change<Store> change : changes) {
+                    if (change.getType() == ChangeFeed.Change.Type.REMOVED) {
+                        copy.remove(change.getValue().name);
+                    } else {
+                        copy.put(change.getValue().name, change.getValue());
+                    }
+                }
+                stores = Collections.unmodifiableMap(copy);
+                version++;
+            }
+            snapshot = new Snapshot(stores, version, System.nanoTime(), Instant.now());
+            lastError = null;
+        } catch (IOException | RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            lastError = e;
+            throw e;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background refreshes. The last snapshot stays readable.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        feed.close();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            // counted and kept in lastError; the snapshot ages until a refresh succeeds
+        }
+    }
+
+    public static class Builder {
+        private final StoreService storeService;
+        private Duration refreshInterval = Duration.ofSeconds(30);
+
+        private Builder(StoreService storeService) {
+            this.storeService = storeService;
+        }
+
+        /** Delay between background refreshes. Defaults to 30 seconds. */
+        public Builder refreshInterval(Duration refreshInterval) {
+            if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+                throw new IllegalArgumentException("refreshInterval must be positive: " + refreshInterval);
+            }
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        public StoreReplica build() {
+            return new StoreReplica(this);
+        }
+    }
+}
@@ -17,52 +17,222 @@
 package org.casbin.casibase.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.casbin.casibase.config.Config;
 import org.casbin.casibase.entity.Store;
-import org.casbin.casibase.entity.Store;
 import org.casbin.casibase.util.AuthTypeEnum;
+import org.casbin.casibase.util.CacheStats;
+import org.casbin.casibase.util.LruCache;
 import org.casbin.casibase.util.Map;
+import org.casbin.casibase.util.PageIterator;
+import org.casbin.casibase.util.PagePublisher;
 import org.casbin.casibase.util.StoreOperations;
 import org.casbin.casibase.util.http.CasibaseResponse;
 import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class StoreService extends Service{
 
+    private final ObjectReader storeReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Store, Object>>() {
+    });
+    private final ObjectReader storeListReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<List<Store>, Object>>() {
+    });
+    private final ObjectReader storePageReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Store[], Object>>() {
+    });
+    private final ObjectReader storeElementReader = objectMapper.readerFor(Store.class);
+    private final ObjectReader modifyReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Object, Object>>() {
+    });
+    private final ObjectWriter storeWriter = objectMapper.writerFor(Store.class);
+
+    private static final String STORE_KEY_PREFIX = "store:";
+    private static final String STORES_KEY = "stores";
+
+    /**
+     * Cache of single stores and of the full listing, or null when the client was built without one.
+     */
+    @Nullable
+    private final LruCache<String, Cached> cache;
+
+    /**
+     * A cached store or listing, weighed by the size of the response it was decoded from.
+     */
+    private static final class Cached {
+        final Object value;
+        final long weight;
+
+        Cached(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
     public StoreService(Config config){
         super(config);
+        this.cache = null;
     }
 
     public StoreService(Config config, AuthTypeEnum authType) {
         super(config, authType);
+        this.cache = null;
+    }
+
+    StoreService(CasibaseClient client) {
+        super(client);
+        Duration ttl = client.getStoreCacheTtl();
+        this.cache = ttl == null ? null
+                : new LruCache<>(ttl.toNanos(), TimeUnit.NANOSECONDS, client.getStoreCacheMaxWeight(), cached -> cached.weight);
     }
 
+    /**
+     * When the client was built with {@link CasibaseClient.Builder#storeCache(Duration, long)}, the store is served
+     * from the cache while it is fresh. Cached stores are shared between callers and must not be modified.
+     */
     public Store getStore(String name) throws IOException {
+        String key = STORE_KEY_PREFIX + name;
+        Store cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation();
         CasibaseResponse<Store, Object> response = doGet(StoreOperations.GET_Store.getOperation(),
-                Map.of("id", config.organizationName + "/" + name), new TypeReference<CasibaseResponse<Store, Object>>() {
-                });
-        return response.getData();
+                Map.of("id", config.organizationName + "/" + name), storeReader);
+        return cache(key, response, generation);
     }
 
+    /**
+     * Served from the cache while it is fresh, like {@link #getStore(String)}.
+     */
     public List<Store> getStores() throws IOException {
+        List<Store> cached = cached(STORES_KEY);
+        if (cached != null) {
+            return cached;
+        }
+        return loadStores();
+    }
+
+    /**
+     * Reads the listing from the server even while a cached copy is fresh, and caches the result. Used by followers
+     * such as {@link ChangeFeed} and {@link StoreReplica}, which must see the stores as they are now.
+     */
+    List<Store> loadStores() throws IOException {
+        long generation = generation();
         CasibaseResponse<List<Store>, Object> response = doGet(StoreOperations.GET_Stores.getOperation(),
-                Map.of("owner", config.organizationName), new TypeReference<CasibaseResponse<List<Store>, Object>>() {
-                });
-        return response.getData();
+                Map.of("owner", config.organizationName), storeListReader);
+        return cache(STORES_KEY, response, generation);
     }
 
     public java.util.Map<String, Object> getPaginationStores(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) throws IOException {
-        CasibaseResponse<Store[], Object> response = doGet(StoreOperations.GET_Store.getOperation(),
+        CasibaseResponse<Store[], Object> response = doGet(StoreOperations.GET_Stores.getOperation(),
                 Map.mergeMap(Map.of("owner", config.organizationName,
                         "p", Integer.toString(p),
-                        "pageSize", Integer.toString(pageSize)), queryMap), new TypeReference<CasibaseResponse<Store[], Object>>() {
-                });
+                        "pageSize", Integer.toString(pageSize)), queryMap), storePageReader);
         return Map.of("casibaseStores", response.getData(), "data2", response.getData2());
     }
 
+    public CompletableFuture<Store> getStoreAsync(String name) {
+        String key = STORE_KEY_PREFIX + name;
+        Store cached = cached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = generation();
+        return mapResult(this.<Store, Object>doGetAsync(StoreOperations.GET_Store.getOperation(),
+                Map.of("id", config.organizationName + "/" + name), storeReader), response -> cache(key, response, generation));
+    }
+
+    public CompletableFuture<List<Store>> getStoresAsync() {
+        List<Store> cached = cached(STORES_KEY);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long generation = generation();
+        return mapResult(this.<List<Store>, Object>doGetAsync(StoreOperations.GET_Stores.getOperation(),
+                Map.of("owner", config.organizationName), storeListReader), response -> cache(STORES_KEY, response, generation));
+    }
+
+    public CompletableFuture<java.util.Map<String, Object>> getPaginationStoresAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return mapResult(getStorePageAsync(p, pageSize, queryMap),
+                response -> Map.of("casibaseStores", response.getData(), "data2", response.getData2()));
+    }
+
+    /**
+     * Lazily iterates over all stores of the organization, fetching one page at a time and prefetching the next
+     * page while the current one is consumed.
+     *
+     * @param pageSize The number of stores fetched per request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Store> iterateStores(int pageSize) {
+        return iterateStores(pageSize, null);
+    }
+
+    public PageIterator<Store> iterateStores(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getStorePageAsync(p, size, queryMap), pageSize);
+    }
+
+    /**
+     * Iterates over the stores matching the given query parameters, keeping up to {@code parallelism} pages in
+     * flight once the first page has reported the total.
+     *
+     * @param pageSize The number of stores fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether stores are returned in page order or as soon as their page arrives.
+     * @param queryMap Additional query parameters sent with every page request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Store> iterateStores(int pageSize, int parallelism, boolean ordered, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getStorePageAsync(p, size, queryMap), pageSize, parallelism, ordered);
+    }
+
+    public Stream<Store> streamStores(int pageSize) {
+        return iterateStores(pageSize).stream();
+    }
+
+    public Stream<Store> streamStores(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return iterateStores(pageSize, queryMap).stream();
+    }
+
+    /**
+     * Streams all stores of the organization, fetching up to {@code parallelism} pages concurrently.
+     *
+     * @param pageSize The number of stores fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether stores are returned in page order or as soon as their page arrives.
+     * @return A sequential stream; close it to cancel the in-flight pages when not fully consumed.
+     */
+    public Stream<Store> streamStores(int pageSize, int parallelism, boolean ordered) {
+        return iterateStores(pageSize, parallelism, ordered, null).stream();
+    }
+
+    /**
+     * Publishes all stores of the organization to a Reactive Streams subscriber. Pages are fetched only as the
+     * subscriber requests more stores, and each page is buffered as it arrives, so a slow subscriber holds no call
+     * open.
+     *
+     * @param pageSize The number of stores fetched per request.
+     * @return A cold publisher; every subscriber walks the listing on its own.
+     * @see PagePublisher
+     */
+    public Publisher<Store> publishStores(int pageSize) {
+        return publishStores(pageSize, null);
+    }
+
+    public Publisher<Store> publishStores(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PagePublisher<>((p, size, reader) -> doGetStreamingAsync(StoreOperations.GET_Stores.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(size)), queryMap), reader), storeElementReader, pageSize);
+    }
+
     public CasibaseResponse<String, Object> addStore(Store Store) throws IOException {
         return modifyStore(StoreOperations.ADD_Store, Store, null);
     }
@@ -77,12 +247,105 @@ public class StoreService extends Service{
         return modifyStore(StoreOperations.UPDATE_Store, Store, queryMap);
     }
 
+    public CompletableFuture<CasibaseResponse<String, Object>> addStoreAsync(Store Store) {
+        return modifyStoreAsync(StoreOperations.ADD_Store, Store, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> deletedStoreAsync(Store Store) {
+        return modifyStoreAsync(StoreOperations.DELETE_Store, Store, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> updateStoreAsync(Store Store) {
+        HashMap<String, String> queryMap = new HashMap<>();
+        queryMap.put("id", config.organizationName + "/" + Store.name);
+        return modifyStoreAsync(StoreOperations.UPDATE_Store, Store, queryMap);
+    }
+
+    private CompletableFuture<CasibaseResponse<Store[], Object>> getStorePageAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return doGetAsync(StoreOperations.GET_Stores.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(pageSize)), queryMap), storePageReader);
+    }
+
+    /**
+     * @return The hit, miss and eviction counters of the store cache, or null when the client was built without one.
+     */
+    @Nullable
+    public CacheStats getCacheStats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    /**
+     * Drops every cached store, e.g. after stores were changed by another application.
+     */
+    public void invalidateCache() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key) {
+        Cached cached = cache != null ? cache.get(key) : null;
+        return cached != null ? (T) cached.value : null;
+    }
+
+    private long generation() {
+        return cache != null ? cache.generation() : 0;
+    }
+
+    /**
+     * Caches the data of a response, weighed by the size of its body; one that was not measured weighs as much as the
+     * whole cache and is not stored.
+     */
+    private <T> T cache(String key, CasibaseResponse<T, ?> response, long generation) {
+        T value = response.getData();
+        if (cache != null && value != null) {
+            long weight = response.getBodySize();
+            cache.put(key, new Cached(value, weight >= 0 ? weight : Long.MAX_VALUE), generation);
+        }
+        return value;
+    }
+
+    private void invalidate(String name) {
+        if (cache != null) {
+            cache.invalidate(STORE_KEY_PREFIX + name);
+            cache.invalidate(STORES_KEY);
+        }
+    }
+
     private <T1, T2> CasibaseResponse modifyStore(StoreOperations method, Store Store, java.util.Map<String, String> queryMap) throws IOException {
         Store.owner = config.organizationName;
-        String payload = objectMapper.writeValueAsString(Store);
+        String payload = storeWriter.writeValueAsString(Store);
+
+        try {
+            return doPost(method.getOperation(), queryMap, payload,
+                    modifyReader);
+        } finally {
+            invalidate(Store.name);
+        }
+    }
+
+    private CompletableFuture<CasibaseResponse<String, Object>> modifyStoreAsync(StoreOperations method, Store Store, java.util.Map<String, String> queryMap) {
+        Store.owner = config.organizationName;
+        String payload;
+        try {
+            payload = storeWriter.writeValueAsString(Store);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+
+        if (cache == null) {
+            return doPostAsync(method.getOperation(), queryMap, payload,
+                    modifyReader);
+        }
 
-        return doPost(method.getOperation(), queryMap, payload,
-                new TypeReference<CasibaseResponse<T1, T2>>() {
-                });
+        // Invalidate before the caller's continuations run, and keep cancellation reaching the call.
+        CompletableFuture<CasibaseResponse<String, Object>> call = doPostAsync(method.getOperation(), queryMap, payload,
+                modifyReader);
+        String name = Store.name;
+        return forwardCancellation(call.whenComplete((response, error) -> invalidate(name)), call);
     }
 }
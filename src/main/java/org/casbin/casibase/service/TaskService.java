@@ -17,20 +17,38 @@
 package org.casbin.casibase.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.casbin.casibase.config.Config;
 import org.casbin.casibase.entity.Task;
 import org.casbin.casibase.util.AuthTypeEnum;
 import org.casbin.casibase.util.Map;
+import org.casbin.casibase.util.PageIterator;
+import org.casbin.casibase.util.PagePublisher;
 import org.casbin.casibase.util.TaskOperations;
 import org.casbin.casibase.util.http.CasibaseResponse;
 import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class TaskService extends Service {
 
+    private final ObjectReader taskReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Task, Object>>() {
+    });
+    private final ObjectReader taskListReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<List<Task>, Object>>() {
+    });
+    private final ObjectReader taskPageReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Task[], Object>>() {
+    });
+    private final ObjectReader taskElementReader = objectMapper.readerFor(Task.class);
+    private final ObjectReader modifyReader = objectMapper.readerFor(new TypeReference<CasibaseResponse<Object, Object>>() {
+    });
+    private final ObjectWriter taskWriter = objectMapper.writerFor(Task.class);
+
     public TaskService(Config config) {
         super(config);
     }
@@ -39,29 +57,114 @@ public class TaskService extends Service {
         super(config, authType);
     }
 
+    TaskService(CasibaseClient client) {
+        super(client);
+    }
+
     public Task getTask(String name) throws IOException {
         CasibaseResponse<Task, Object> response = doGet(TaskOperations.GET_Task.getOperation(),
-                Map.of("id", config.organizationName + "/" + name), new TypeReference<CasibaseResponse<Task, Object>>() {
-                });
+                Map.of("id", config.organizationName + "/" + name), taskReader);
         return response.getData();
     }
 
     public List<Task> getTasks() throws IOException {
         CasibaseResponse<List<Task>, Object> response = doGet(TaskOperations.GET_Tasks.getOperation(),
-                Map.of("owner", config.organizationName), new TypeReference<CasibaseResponse<List<Task>, Object>>() {
-                });
+                Map.of("owner", config.organizationName), taskListReader);
         return response.getData();
     }
 
     public java.util.Map<String, Object> getPaginationTasks(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) throws IOException {
-        CasibaseResponse<Task[], Object> response = doGet(TaskOperations.GET_Task.getOperation(),
+        CasibaseResponse<Task[], Object> response = doGet(TaskOperations.GET_Tasks.getOperation(),
                 Map.mergeMap(Map.of("owner", config.organizationName,
                         "p", Integer.toString(p),
-                        "pageSize", Integer.toString(pageSize)), queryMap), new TypeReference<CasibaseResponse<Task[], Object>>() {
-                });
+                        "pageSize", Integer.toString(pageSize)), queryMap), taskPageReader);
         return Map.of("casibaseTasks", response.getData(), "data2", response.getData2());
     }
 
+    public CompletableFuture<Task> getTaskAsync(String name) {
+        return mapResult(this.<Task, Object>doGetAsync(TaskOperations.GET_Task.getOperation(),
+                Map.of("id", config.organizationName + "/" + name), taskReader), CasibaseResponse::getData);
+    }
+
+    public CompletableFuture<List<Task>> getTasksAsync() {
+        return mapResult(this.<List<Task>, Object>doGetAsync(TaskOperations.GET_Tasks.getOperation(),
+                Map.of("owner", config.organizationName), taskListReader), CasibaseResponse::getData);
+    }
+
+    public CompletableFuture<java.util.Map<String, Object>> getPaginationTasksAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return mapResult(getTaskPageAsync(p, pageSize, queryMap),
+                response -> Map.of("casibaseTasks", response.getData(), "data2", response.getData2()));
+    }
+
+    /**
+     * Lazily iterates over all tasks of the organization, fetching one page at a time and prefetching the next
+     * page while the current one is consumed.
+     *
+     * @param pageSize The number of tasks fetched per request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Task> iterateTasks(int pageSize) {
+        return iterateTasks(pageSize, null);
+    }
+
+    public PageIterator<Task> iterateTasks(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getTaskPageAsync(p, size, queryMap), pageSize);
+    }
+
+    /**
+     * Iterates over the tasks matching the given query parameters, keeping up to {@code parallelism} pages in
+     * flight once the first page has reported the total.
+     *
+     * @param pageSize The number of tasks fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether tasks are returned in page order or as soon as their page arrives.
+     * @param queryMap Additional query parameters sent with every page request.
+     * @return An iterator that must be closed if it is abandoned before the end.
+     */
+    public PageIterator<Task> iterateTasks(int pageSize, int parallelism, boolean ordered, @Nullable java.util.Map<String, String> queryMap) {
+        return new PageIterator<>((p, size) -> getTaskPageAsync(p, size, queryMap), pageSize, parallelism, ordered);
+    }
+
+    public Stream<Task> streamTasks(int pageSize) {
+        return iterateTasks(pageSize).stream();
+    }
+
+    public Stream<Task> streamTasks(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return iterateTasks(pageSize, queryMap).stream();
+    }
+
+    /**
+     * Streams all tasks of the organization, fetching up to {@code parallelism} pages concurrently.
+     *
+     * @param pageSize The number of tasks fetched per request.
+     * @param parallelism The maximum number of pages fetched concurrently.
+     * @param ordered Whether tasks are returned in page order or as soon as their page arrives.
+     * @return A sequential stream; close it to cancel the in-flight pages when not fully consumed.
+     */
+    public Stream<Task> streamTasks(int pageSize, int parallelism, boolean ordered) {
+        return iterateTasks(pageSize, parallelism, ordered, null).stream();
+    }
+
+    /**
+     * Publishes all tasks of the organization to a Reactive Streams subscriber. Pages are fetched only as the
+     * subscriber requests more tasks, and each page is buffered as it arrives, so a slow subscriber holds no call
+     * open.
+     *
+     * @param pageSize The number of tasks fetched per request.
+     * @return A cold publisher; every subscriber walks the listing on its own.
+     * @see PagePublisher
+     */
+    public Publisher<Task> publishTasks(int pageSize) {
+        return publishTasks(pageSize, null);
+    }
+
+    public Publisher<Task> publishTasks(int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return new PagePublisher<>((p, size, reader) -> doGetStreamingAsync(TaskOperations.GET_Tasks.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(size)), queryMap), reader), taskElementReader, pageSize);
+    }
+
     public CasibaseResponse<String, Object> addTask(Task task) throws IOException {
         return modifyTask(TaskOperations.ADD_Task, task, null);
     }
@@ -76,12 +179,45 @@ public class TaskService extends Service {
         return modifyTask(TaskOperations.UPDATE_Task, task, queryMap);
     }
 
+    public CompletableFuture<CasibaseResponse<String, Object>> addTaskAsync(Task task) {
+        return modifyTaskAsync(TaskOperations.ADD_Task, task, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> deletedTaskAsync(Task task) {
+        return modifyTaskAsync(TaskOperations.DELETE_Task, task, null);
+    }
+
+    public CompletableFuture<CasibaseResponse<String, Object>> updateTaskAsync(Task task) {
+        HashMap<String, String> queryMap = new HashMap<>();
+        queryMap.put("id", config.organizationName + "/" + task.name);
+        return modifyTaskAsync(TaskOperations.UPDATE_Task, task, queryMap);
+    }
+
+    private CompletableFuture<CasibaseResponse<Task[], Object>> getTaskPageAsync(int p, int pageSize, @Nullable java.util.Map<String, String> queryMap) {
+        return doGetAsync(TaskOperations.GET_Tasks.getOperation(),
+                Map.mergeMap(Map.of("owner", config.organizationName,
+                        "p", Integer.toString(p),
+                        "pageSize", Integer.toString(pageSize)), queryMap), taskPageReader);
+    }
+
     private <T1, T2> CasibaseResponse modifyTask(TaskOperations method, Task task, java.util.Map<String, String> queryMap) throws IOException {
         task.owner = config.organizationName;
-        String payload = objectMapper.writeValueAsString(task);
+        String payload = taskWriter.writeValueAsString(task);
 
         return doPost(method.getOperation(), queryMap, payload,
-                new TypeReference<CasibaseResponse<T1, T2>>() {
-                });
+                modifyReader);
+    }
+
+    private CompletableFuture<CasibaseResponse<String, Object>> modifyTaskAsync(TaskOperations method, Task task, java.util.Map<String, String> queryMap) {
+        task.owner = config.organizationName;
+        String payload;
+        try {
+            payload = taskWriter.writeValueAsString(task);
+        } catch (IOException e) {
+            return failedFuture(e);
+        }
+
+        return doPostAsync(method.getOperation(), queryMap, payload,
+                modifyReader);
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs many blocking SDK calls concurrently as one unit of work: the calls forked in a scope are joined together,
+ * the first failure cancels the calls still running and is thrown by {@link #join()}, and closing the scope cancels
+ * whatever is left. This is the shape of {@code StructuredTaskScope.ShutdownOnFailure}, available before it leaves
+ * preview.
+ * <p>
+ * It is meant for an executor from {@link VirtualThreads#newExecutor(String)}: each call then blocks a virtual thread
+ * of its own, so fanning out to thousands of {@code getRecord} or {@code getTask} calls costs no platform threads.
+ *
+ * <pre>{@code
+ * try (FanOut<Task> scope = FanOut.open(executor)) {
+ *     for (String name : names) {
+ *         scope.fork(() -> client.tasks().getTask(name));
+ *     }
+ *     List<Task> tasks = scope.join();
+ * }
+ * }</pre>
+ *
+ * @param <T> The type produced by the calls.
+ */
+public class FanOut<T> implements AutoCloseable {
+
+    /**
+     * A blocking call of the SDK.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * A blocking call of the SDK taking one key, such as {@code client.tasks()::getTask}.
+     */
+    @FunctionalInterface
+    public interface KeyedCall<K, T> {
+        T call(K key) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final List<Future<T>> forks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private FanOut(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public static <T> FanOut<T> open(ExecutorService executor) {
+        return new FanOut<>(executor);
+    }
+
+    /**
+     * Calls the given function for every key concurrently.
+     *
+     * @return The results, in the order of the keys.
+     * @throws IOException The first failure of a call, once the other calls are cancelled.
+     */
+    public static <K, T> List<T> map(ExecutorService executor, Collection<K> keys, KeyedCall<K, T> call) throws IOException {
+        try (FanOut<T> scope = open(executor)) {
+            for (K key : keys) {
+                scope.fork(() -> call.call(key));
+            }
+            return scope.join();
+        }
+    }
+
+    /**
+     * Starts a call. Calls must be forked by the thread that owns the scope, before {@link #join()}.
+     */
+    public void fork(Call<T> call) {
+        Future<T> fork = executor.submit(() -> {
+            try {
+                return call.call();
+            } catch (IOException | RuntimeException | Error e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        forks.add(fork);
+        if (failure.get() != null) {
+            fork.cancel(true);
+        }
+    }
+
+    /**
+     * Waits for every call.
+     *
+     * @return The results, in the order the calls were forked.
+     * @throws IOException The first failure of a call; an {@link InterruptedIOException} if the thread is interrupted.
+     */
+    public List<T> join() throws IOException {
+        List<T> results = new ArrayList<>(forks.size());
+        for (Future<T> fork : forks) {
+            try {
+                results.add(fork.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new InterruptedIOException("Interrupted while joining the calls");
+            } catch (ExecutionException | CancellationException e) {
+                cancelAll();
+                throw rethrow(failure.get() != null ? failure.get() : e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Cancels the calls still running, interrupting their threads.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (Future<T> fork : forks) {
+            fork.cancel(true);
+        }
+    }
+
+    private static IOException rethrow(@Nullable Throwable error) {
+        if (error instanceof ExecutionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof IOException) {
+            return (IOException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IOException(error);
+    }
+}
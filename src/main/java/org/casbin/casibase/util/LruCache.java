@@ -0,0 +1,228 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size-bounded, least-recently-used cache whose entries expire a fixed time after they were stored.
+ * <p>
+ * The size is the sum of the weights of the entries, as computed by a weigher when an entry is stored, e.g. its
+ * payload size in bytes. Least recently read entries are evicted once the maximum weight is exceeded; a value heavier
+ * than the whole cache is not stored at all.
+ * <p>
+ * Reads take no lock: an entry is looked up in a concurrent map and stamps the time it was read into a volatile field.
+ * Stores, invalidations and the removal of expired entries are serialized by a lock, and a store that exceeds the
+ * maximum weight evicts the entries read longest ago, found by sorting the entries by their stamps. That costs far less
+ * than the load from the server that precedes every store.
+ * <p>
+ * Loads and invalidations race: a value loaded from the server before a write completed must not be stored after
+ * the write invalidated it. Callers therefore read {@link #generation()} before loading and pass it to
+ * {@link #put(Object, Object, long)}, which ignores the value if any invalidation happened in between.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class LruCache<K, V> {
+    private static class Entry<V> {
+        final V value;
+        final long weight;
+        final long expiresAtNanos;
+        volatile long accessedNanos;
+
+        Entry(V value, long weight, long nowNanos, long expiresAtNanos) {
+            this.value = value;
+            this.weight = weight;
+            this.accessedNanos = nowNanos;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final long ttlNanos;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param ttl The time an entry stays valid after it was stored.
+     * @param unit The unit of {@code ttl}.
+     * @param maxWeight The maximum total weight of the entries.
+     * @param weigher Computes the weight of a value once, when it is stored.
+     */
+    public LruCache(long ttl, TimeUnit unit, long maxWeight, ToLongFunction<? super V> weigher) {
+        if (ttl <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("ttl and maxWeight must be positive");
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return The cached value, or null if it is absent or expired.
+     */
+    @Nullable
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.expiresAtNanos - now <= 0) {
+            remove(key, entry, expirations);
+            misses.increment();
+            return null;
+        }
+        entry.accessedNanos = now;
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * @return A token to pass to {@link #put(Object, Object, long)} for a value about to be loaded.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores a value unless the cache was invalidated since {@code generation} was read.
+     *
+     * @param key The key.
+     * @param value The value, which must not be null.
+     * @param generation The {@link #generation()} read before the value was loaded.
+     */
+    public void put(K key, V value, long generation) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation != this.generation) {
+                return;
+            }
+            long now = System.nanoTime();
+            Entry<V> previous = entries.put(key, new Entry<>(value, valueWeight, now, now + ttlNanos));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += valueWeight;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            Entry<V> entry = entries.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an entry unless it was replaced or removed meanwhile.
+     */
+    private void remove(K key, Entry<V> entry, LongAdder counter) {
+        lock.lock();
+        try {
+            if (entries.remove(key, entry)) {
+                weight -= entry.weight;
+                counter.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict() {
+        if (weight <= maxWeight) {
+            return;
+        }
+        // the stamps are copied first, as readers keep moving them while the entries are sorted
+        List<Eviction<K, V>> byAccess = new ArrayList<>(entries.size());
+        entries.forEach((key, entry) -> byAccess.add(new Eviction<>(key, entry)));
+        byAccess.sort(Comparator.comparingLong(eviction -> eviction.accessedNanos));
+        for (Eviction<K, V> eldest : byAccess) {
+            if (weight <= maxWeight) {
+                return;
+            }
+            if (entries.remove(eldest.key, eldest.entry)) {
+                weight -= eldest.entry.weight;
+                evictions.increment();
+            }
+        }
+    }
+
+    private static class Eviction<K, V> {
+        final K key;
+        final Entry<V> entry;
+        final long accessedNanos;
+
+        Eviction(K key, Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.accessedNanos = entry.accessedNanos;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util;
+
+import org.casbin.casibase.util.http.CasibaseResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks a paginated listing on demand. Only the page being consumed and the pages fetched ahead of it are held
+ * in memory, so arbitrarily large listings can be processed with a fixed heap footprint.
+ * <p>
+ * Once the first page has reported the total in {@code data2}, the remaining pages are independent and up to
+ * {@code parallelism} of them are kept in flight at a time. Pages are handed out in page order, or in completion
+ * order when {@code ordered} is false. Without a total, pages are fetched one after the other.
+ * <p>
+ * The total is a snapshot taken from the first page, so the spliterator does not claim to be {@link Spliterator#SIZED}:
+ * items added or removed while the walk is in progress may make the final count differ.
+ *
+ * @param <T> The type of the listed objects.
+ */
+public class PageIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Fetches one page of a listing.
+     *
+     * @param <T> The type of the listed objects.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        /**
+         * @param p The 1-based page number.
+         * @param pageSize The number of objects per page.
+         * @return A future completed with the page in {@code data} and the total count in {@code data2}.
+         */
+        CompletableFuture<CasibaseResponse<T[], Object>> fetch(int p, int pageSize);
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final int parallelism;
+    private final boolean ordered;
+
+    // Ordered mode: in-flight pages in page order. Unordered mode: pages in the order they completed.
+    private final Deque<CompletableFuture<CasibaseResponse<T[], Object>>> pending = new ArrayDeque<>();
+    private final BlockingQueue<CompletableFuture<CasibaseResponse<T[], Object>>> completed = new LinkedBlockingQueue<>();
+    private int inFlight;
+
+    private T[] page;
+    private int index;
+    private boolean started;
+    private boolean exhausted;
+    private int nextPage = 1;
+    private int lastPage = -1;
+    private int lastLength;
+    private long total = -1;
+    private long returned;
+
+    public PageIterator(PageFetcher<T> fetcher, int pageSize) {
+        this(fetcher, pageSize, 1, true);
+    }
+
+    /**
+     * @param fetcher The page source.
+     * @param pageSize The number of objects per page.
+     * @param parallelism The maximum number of pages fetched ahead of the consumer.
+     * @param ordered Whether objects are returned in page order or as soon as their page arrives.
+     */
+    public PageIterator(PageFetcher<T> fetcher, int pageSize, int parallelism, boolean ordered) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Returns the total number of objects reported by the server, fetching the first page if needed.
+     *
+     * @return The total, or -1 if the server did not report one.
+     */
+    public long getTotal() {
+        if (!started && !exhausted) {
+            advance();
+        }
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page == null || index >= page.length) {
+            if (exhausted || !advance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        returned++;
+        T item = page[index];
+        page[index++] = null;
+        return item;
+    }
+
+    /**
+     * Cancels the pages fetched ahead, if any. Further calls to {@link #hasNext()} return false.
+     */
+    @Override
+    public void close() {
+        exhausted = true;
+        page = null;
+        for (CompletableFuture<CasibaseResponse<T[], Object>> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+        completed.clear();
+        inFlight = 0;
+    }
+
+    /**
+     * Returns a spliterator over the remaining objects whose size estimate comes from the server's total.
+     *
+     * @return The spliterator.
+     */
+    public Spliterator<T> spliterator() {
+        return new PageSpliterator();
+    }
+
+    /**
+     * Returns a sequential stream over the remaining objects. Closing the stream cancels the pages fetched ahead.
+     *
+     * @return The stream.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    /**
+     * Moves to the next page that has been received.
+     *
+     * @return false once there are no more pages.
+     */
+    private boolean advance() {
+        CompletableFuture<CasibaseResponse<T[], Object>> future;
+        if (!started) {
+            started = true;
+            future = fetcher.fetch(nextPage++, pageSize);
+        } else if (inFlight > 0) {
+            future = ordered ? pending.poll() : take();
+            inFlight--;
+        } else {
+            exhausted = true;
+            return false;
+        }
+
+        CasibaseResponse<T[], Object> response = await(future);
+        page = response.getData();
+        index = 0;
+        lastLength = page == null ? 0 : page.length;
+        if (lastPage < 0 && response.getData2() instanceof Number) {
+            total = ((Number) response.getData2()).longValue();
+            lastPage = (int) ((total + pageSize - 1) / pageSize);
+        }
+        fill();
+        return true;
+    }
+
+    private void fill() {
+        if (exhausted) {
+            return;
+        }
+        if (lastPage < 0) {
+            // Without a total the next page number is only worth asking for after a full page.
+            if (inFlight == 0 && lastLength >= pageSize) {
+                submit(nextPage++);
+            }
+            return;
+        }
+        while (inFlight < parallelism && nextPage <= lastPage) {
+            submit(nextPage++);
+        }
+    }
+
+    private void submit(int p) {
+        CompletableFuture<CasibaseResponse<T[], Object>> future = fetcher.fetch(p, pageSize);
+        inFlight++;
+        pending.add(future);
+        if (!ordered) {
+            future.whenComplete((response, error) -> completed.add(future));
+        }
+    }
+
+    private CompletableFuture<CasibaseResponse<T[], Object>> take() {
+        try {
+            CompletableFuture<CasibaseResponse<T[], Object>> future = completed.take();
+            pending.remove(future);
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next page");
+        }
+    }
+
+    private <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next page");
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private class PageSpliterator implements Spliterator<T> {
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!hasNext()) {
+                return false;
+            }
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = getTotal();
+            return size < 0 ? Long.MAX_VALUE : Math.max(0, size - returned);
+        }
+
+        @Override
+        public int characteristics() {
+            return ordered ? ORDERED | NONNULL : NONNULL;
+        }
+    }
+}
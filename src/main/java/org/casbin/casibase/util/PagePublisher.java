@@ -0,0 +1,293 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.casbin.casibase.exception.Exception;
+import org.casbin.casibase.util.http.HttpClient;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes a paginated listing to a Reactive Streams subscriber, driven by its demand. A page is only requested once
+ * the subscriber has asked for more objects than the previous pages held. Each page is read and decoded as soon as it
+ * arrives, which gives its connection, host slot and limiter permit back at once; the subscriber then takes the
+ * objects from that buffer at its own pace, so a subscription holds at most one page. Cancelling the subscription
+ * cancels the call in flight and drops the buffered page.
+ * <p>
+ * Objects are delivered on the thread calling {@link Subscription#request(long)} or on the decoder thread that read
+ * the page; no thread ever waits for demand. On JDK 9 and later,
+ * {@code org.reactivestreams.FlowAdapters.toFlowPublisher} adapts the publisher to {@code java.util.concurrent.Flow}.
+ * <p>
+ * Every subscriber walks the listing on its own. Pages are fetched one after the other, and the walk ends with the
+ * first short page or once the total reported in {@code data2} has been delivered.
+ *
+ * @param <T> The type of the listed objects.
+ */
+public class PagePublisher<T> implements Publisher<T> {
+
+    /**
+     * Fetches one page of a listing and hands its open body to a reader.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        /**
+         * @param p The 1-based page number.
+         * @param pageSize The number of objects per page.
+         * @param reader Consumes the body of the page.
+         * @return A future completed once the reader returns. Cancelling it must cancel the call.
+         */
+        CompletableFuture<Void> fetch(int p, int pageSize, HttpClient.BodyReader<Void> reader);
+    }
+
+    private final PageSource source;
+    private final ObjectReader elementReader;
+    private final int pageSize;
+
+    /**
+     * @param source The page source.
+     * @param elementReader The reader of a single listed object.
+     * @param pageSize The number of objects per page.
+     */
+    public PagePublisher(PageSource source, ObjectReader elementReader, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.source = source;
+        this.elementReader = elementReader;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new PageSubscription(subscriber));
+    }
+
+    /**
+     * The decoded objects of one page.
+     */
+    private final class Page {
+        final List<T> items;
+        final boolean last;
+
+        Page(List<T> items, boolean last) {
+            this.items = items;
+            this.last = last;
+        }
+    }
+
+    private class PageSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+        // Serializes drain(): whoever raises it from zero delivers, everyone else just asks for one more pass.
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        @Nullable
+        private volatile CompletableFuture<Void> inFlight;
+        // Handed from the page's completion to the next pass of drain().
+        @Nullable
+        private volatile Page arrived;
+        @Nullable
+        private volatile Throwable failure;
+
+        // Only touched inside drain().
+        private int page;
+        private boolean fetching;
+        private boolean done;
+        @Nullable
+        private Page buffer;
+        private int index;
+
+        PageSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Demand must be positive: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, delta) -> current + delta < 0 ? Long.MAX_VALUE : current + delta);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            CompletableFuture<Void> call = inFlight;
+            if (call != null) {
+                call.cancel(true);
+            }
+            // drops the buffer unless a pass is already running, which then drops it itself
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled || done) {
+                    buffer = null;
+                    arrived = null;
+                    return;
+                }
+                Page next = arrived;
+                if (next != null) {
+                    arrived = null;
+                    buffer = next;
+                    index = 0;
+                    fetching = false;
+                }
+                Throwable error = failure;
+                if (error != null) {
+                    done = true;
+                    subscriber.onError(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    return;
+                }
+
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted != requested && buffer != null && index < buffer.items.size()) {
+                    T item = buffer.items.get(index);
+                    buffer.items.set(index++, null);
+                    try {
+                        subscriber.onNext(item);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        return;
+                    }
+                    if (cancelled) {
+                        return;
+                    }
+                    emitted++;
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                if (!fetching && (buffer == null || index >= buffer.items.size())) {
+                    if (buffer != null && buffer.last) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (demand.get() > 0) {
+                        buffer = null;
+                        fetching = true;
+                        fetchNext();
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void fetchNext() {
+            int p = ++page;
+            AtomicReference<Page> result = new AtomicReference<>();
+            CompletableFuture<Void> call = source.fetch(p, pageSize, body -> {
+                result.set(readPage(p, body));
+                return null;
+            });
+            inFlight = call;
+            if (cancelled) {
+                call.cancel(true);
+            }
+            call.whenComplete((ignored, error) -> {
+                inFlight = null;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    arrived = result.get();
+                }
+                drain();
+            });
+        }
+
+        /**
+         * Reads the response envelope of a page and decodes the elements of {@code data}.
+         */
+        private Page readPage(int p, InputStream body) throws IOException {
+            try (JsonParser parser = elementReader.createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected a response object");
+                }
+                String status = null;
+                String msg = null;
+                List<T> items = new ArrayList<>();
+                long total = -1;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken token = parser.nextToken();
+                    if ("status".equals(field)) {
+                        status = parser.getValueAsString();
+                    } else if ("msg".equals(field)) {
+                        msg = parser.getValueAsString();
+                    } else if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                        readElements(p, parser, items);
+                    } else if ("data2".equals(field) && token.isNumeric()) {
+                        total = parser.getLongValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (!"ok".equals(status)) {
+                    throw new Exception(String.format("Failed fetching page %d : %s", p, msg));
+                }
+                return new Page(items, items.size() < pageSize || (total >= 0 && (long) p * pageSize >= total));
+            }
+        }
+
+        private void readElements(int p, JsonParser parser, List<T> items) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new EOFException("Unexpected end of page " + p);
+                }
+                items.add(elementReader.readValue(parser));
+            }
+        }
+    }
+}
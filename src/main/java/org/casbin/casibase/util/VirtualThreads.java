@@ -0,0 +1,110 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Access to the virtual threads of JDK 21 from code compiled for Java 8.
+ * <p>
+ * Built with the {@code jdk21} profile, the jar is a multi-release jar whose Java 21 version of this class creates
+ * virtual threads directly. This version finds them reflectively, so that they are also used when the SDK runs from
+ * an exploded classpath, and falls back to platform threads before JDK 21.
+ * <p>
+ * The SDK's own blocking code guards its state with {@link java.util.concurrent.locks.ReentrantLock} and atomics,
+ * never with {@code synchronized}, so a virtual thread waiting in it, or on a call it made, does not pin its carrier.
+ */
+public final class VirtualThreads {
+    @Nullable
+    private static final Handles HANDLES = Handles.find();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return Whether this JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return HANDLES != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task, or, before JDK 21, one that starts a new
+     * daemon platform thread for each task that finds no idle one.
+     *
+     * @param name The prefix of the thread names.
+     * @return The executor, to be shut down by the caller.
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (HANDLES == null) {
+            AtomicInteger sequence = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            Object builder = HANDLES.name.invoke(HANDLES.ofVirtual.invoke(), name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) HANDLES.factory.invoke(builder);
+            return (ExecutorService) HANDLES.newThreadPerTaskExecutor.invoke(factory);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, start).factory())}, looked up once.
+     */
+    private static class Handles {
+        final MethodHandle ofVirtual;
+        final MethodHandle name;
+        final MethodHandle factory;
+        final MethodHandle newThreadPerTaskExecutor;
+
+        private Handles(MethodHandle ofVirtual, MethodHandle name, MethodHandle factory, MethodHandle newThreadPerTaskExecutor) {
+            this.ofVirtual = ofVirtual;
+            this.name = name;
+            this.factory = factory;
+            this.newThreadPerTaskExecutor = newThreadPerTaskExecutor;
+        }
+
+        @Nullable
+        static Handles find() {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            try {
+                Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                return new Handles(
+                        lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual)),
+                        lookup.findVirtual(ofVirtual, "name", MethodType.methodType(ofVirtual, String.class, long.class)),
+                        lookup.findVirtual(ofVirtual, "factory", MethodType.methodType(ThreadFactory.class)),
+                        lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                                MethodType.methodType(ExecutorService.class, ThreadFactory.class)));
+            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+}
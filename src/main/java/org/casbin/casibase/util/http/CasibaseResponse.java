@@ -16,11 +16,15 @@
 
 package org.casbin.casibase.util.http;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class CasibaseResponse<T1, T2> {
     private String status;
     private String msg;
     private T1 data;
     private T2 data2;
+    @JsonIgnore
+    private long bodySize = -1;
 
     public String getStatus() {
         return status;
@@ -54,4 +58,17 @@ public class CasibaseResponse<T1, T2> {
         this.data2 = data2;
     }
 
+    /**
+     * @return The size in bytes of the body this response was decoded from, or -1 if it was not measured.
+     */
+    @JsonIgnore
+    public long getBodySize() {
+        return bodySize;
+    }
+
+    @JsonIgnore
+    public void setBodySize(long bodySize) {
+        this.bodySize = bodySize;
+    }
+
 }
@@ -20,11 +20,55 @@ import okhttp3.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HttpClient {
-    private static OkHttpClient okHttpClient = new OkHttpClient();
+    public static final int HTTP_NOT_MODIFIED = 304;
+
+    private static final MediaType TEXT_PLAIN = MediaType.parse("text/plain;charset=UTF-8");
+
+    private static volatile OkHttpClient okHttpClient = new OkHttpClient();
+
+    /**
+     * Decodes the responses of async calls that are not given an executor of their own, for the calls of the shared
+     * client, whose dispatcher lets OkHttp's default of 5 requests per host run at once.
+     */
+    private static final class SharedDecoder {
+        static final ExecutorService EXECUTOR = newDecoderExecutor(5);
+    }
+
+    /**
+     * Consumes a successful response, or the 304 answer to a conditional request, while it is still open. Implementations should read the body as a stream
+     * (e.g. {@link ResponseBody#byteStream()}) rather than buffering it; the response is closed once the reader returns.
+     *
+     * @param <T> The type produced from the response.
+     */
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+        T read(Response response) throws IOException;
+    }
+
+    /**
+     * Consumes the body of a successful response while it is still open, such as a page whose elements are handed
+     * out one by one as they are decoded.
+     *
+     * @param <T> The type produced from the body.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
 
     /**
      * Sends a synchronous HTTP GET request to the specified URL with the provided credentials for authentication.
@@ -35,13 +79,10 @@ public class HttpClient {
      * @throws IOException If an I/O error occurs during the request (e.g., network issues).
      */
     public static String syncGet(String url, String credential) throws IOException {
-        Request request = new Request.Builder()
-                .url(url)
-                .header("Authorization", credential)
-                .build();
-        Response casibaseResponse = okHttpClient.newCall(request).execute();
-        if (casibaseResponse.isSuccessful()) {
-            return casibaseResponse.body().string();
+        try (Response casibaseResponse = okHttpClient.newCall(getRequest(url, credential)).execute()) {
+            if (casibaseResponse.isSuccessful()) {
+                return casibaseResponse.body().string();
+            }
         }
         return null;
     }
@@ -56,14 +97,10 @@ public class HttpClient {
      * @throws IOException If an I/O error occurs during the request (e.g., network issues).
      */
     public static String postString(String url, String objStr, String credential) throws IOException {
-        MediaType MEDIA_TYPE = MediaType.parse("text/plain;charset=UTF-8");
-        Request request = new Request.Builder().url(url)
-                .post(RequestBody.create(MEDIA_TYPE, objStr))
-                .header("Authorization", credential)
-                .build();
-        Response response = okHttpClient.newCall(request).execute();
-        if (response.isSuccessful()) {
-            return response.body().string();
+        try (Response response = okHttpClient.newCall(postStringRequest(url, objStr, credential)).execute()) {
+            if (response.isSuccessful()) {
+                return response.body().string();
+            }
         }
         return null;
     }
@@ -78,51 +115,296 @@ public class HttpClient {
      * @throws IOException If an I/O error occurs during the request (e.g., network issues) or if the server returns an unsuccessful response.
      */
     public static String postFile(String url, File file, String credential) throws IOException {
+        return execute(postFileRequest(url, file, credential), response -> response.body().string());
+    }
+
+    /**
+     * Post a request of type "application/x-www-form-urlencoded"
+     * @param url url
+     * @param fromData form data stored in Map
+     * @param credential credential
+     * @return result as String
+     * @throws IOException when request fails
+     */
+    public static String postForm(String url, Map<String, String> fromData, String credential) throws IOException {
+        return execute(postFormRequest(url, fromData, credential), response -> Objects.requireNonNull(response.body()).string());
+    }
+
+    /**
+     * Sends an asynchronous HTTP GET request to the specified URL with the provided credentials for authentication.
+     * The request is queued on the OkHttp dispatcher, so the calling thread is never blocked.
+     *
+     * @param url The target URL to which the request will be sent.
+     * @param credential The credential used for authentication, typically a token or API key.
+     * @return A future completed with the response body as a string, or completed exceptionally with an
+     *         {@link IOException} if the request fails or the server returns an unsuccessful response.
+     *         Cancelling the future cancels the underlying call.
+     */
+    public static CompletableFuture<String> asyncGet(String url, String credential) {
+        return enqueue(getRequest(url, credential), response -> Objects.requireNonNull(response.body()).string());
+    }
+
+    /**
+     * Sends an asynchronous HTTP POST request to the specified URL with a string as the request body and the provided credentials for authentication.
+     *
+     * @param url The target URL to which the request will be sent.
+     * @param objStr The string content to be sent as the request body.
+     * @param credential The credential used for authentication, typically a token or API key.
+     * @return A future completed with the response body as a string, or completed exceptionally with an
+     *         {@link IOException} if the request fails or the server returns an unsuccessful response.
+     *         Cancelling the future cancels the underlying call.
+     */
+    public static CompletableFuture<String> asyncPostString(String url, String objStr, String credential) {
+        return enqueue(postStringRequest(url, objStr, credential), response -> Objects.requireNonNull(response.body()).string());
+    }
+
+    /**
+     * Executes a request synchronously on the shared client set by {@link #setHttpClient(OkHttpClient)}.
+     *
+     * @see #execute(OkHttpClient, Request, ResponseReader)
+     */
+    public static <T> T execute(Request request, ResponseReader<T> reader) throws IOException {
+        return execute(okHttpClient, request, reader);
+    }
+
+    /**
+     * Executes a request synchronously and hands the open response to the given reader, so the body can be decoded
+     * straight from the socket instead of being buffered into a string first. The response is always closed afterwards.
+     *
+     * @param client The client used to send the request.
+     * @param request The request to execute.
+     * @param reader The reader that consumes the successful response, or the 304 answer to a conditional request.
+     * @param <T> The type produced by the reader.
+     * @return The value produced by the reader.
+     * @throws IOException If an I/O error occurs or the reader fails; a {@link HttpStatusException} if the server returns an unsuccessful response.
+     */
+    public static <T> T execute(OkHttpClient client, Request request, ResponseReader<T> reader) throws IOException {
+        try (Response response = client.newCall(request).execute()) {
+            if (!isAccepted(request, response)) {
+                throw new HttpStatusException(response);
+            }
+            return reader.read(response);
+        }
+    }
+
+    /**
+     * Queues a request on the dispatcher of the shared client set by {@link #setHttpClient(OkHttpClient)}.
+     *
+     * @see #enqueue(OkHttpClient, Request, ResponseReader)
+     */
+    public static <T> CompletableFuture<T> enqueue(Request request, ResponseReader<T> reader) {
+        return enqueue(okHttpClient, request, reader);
+    }
+
+    /**
+     * Queues a request on the OkHttp dispatcher and hands the open response to the given reader on the shared decoder
+     * threads.
+     *
+     * @see #enqueue(OkHttpClient, Request, ResponseReader, Executor)
+     */
+    public static <T> CompletableFuture<T> enqueue(OkHttpClient client, Request request, ResponseReader<T> reader) {
+        return enqueue(client, request, reader, getDecoderExecutor());
+    }
+
+    /**
+     * Queues a request on the OkHttp dispatcher and hands the open response to the given reader on the decoder
+     * executor. When the decoder takes the response, the dispatcher thread returns as soon as the headers are in, so
+     * the call gives its slot under {@code maxRequests}/{@code maxRequestsPerHost} back while the body is still being
+     * read and decoded, and a slow decode never delays the calls queued behind it. The decoder should therefore bound
+     * the number of responses it reads at once, and read the others on the calling dispatcher thread, which keeps its
+     * slot until it is done, as the executors of {@link #newDecoderExecutor(int)} and
+     * {@link #boundedDecoder(Executor, int)} do. The response is always closed afterwards.
+     *
+     * @param client The client used to send the request.
+     * @param request The request to enqueue.
+     * @param reader The reader that consumes the successful response, or the 304 answer to a conditional request.
+     * @param decoder The executor running the reader.
+     * @param <T> The type produced by the reader.
+     * @return A future completed with the value produced by the reader, or completed exceptionally with an
+     *         {@link IOException} if the request or the reader fails, a {@link HttpStatusException} for an unsuccessful response.
+     *         Cancelling the future cancels the underlying call.
+     */
+    public static <T> CompletableFuture<T> enqueue(OkHttpClient client, Request request, ResponseReader<T> reader, Executor decoder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Call call = client.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    decoder.execute(() -> {
+                        try (Response r = response) {
+                            if (!isAccepted(request, r)) {
+                                throw new HttpStatusException(r);
+                            }
+                            future.complete(reader.read(r));
+                        } catch (IOException | RuntimeException e) {
+                            future.completeExceptionally(e);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    response.close();
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * A response is handed to the reader when it is successful, or when it is the "304 Not Modified" answer to a
+     * conditional request, which only the sender of that request knows how to resolve.
+     */
+    private static boolean isAccepted(Request request, Response response) {
+        if (response.isSuccessful()) {
+            return true;
+        }
+        return response.code() == HTTP_NOT_MODIFIED
+                && (request.header("If-None-Match") != null || request.header("If-Modified-Since") != null);
+    }
+
+    /**
+     * Builds an authenticated GET request.
+     *
+     * @param url The target URL.
+     * @param credential The credential used for authentication.
+     * @return The request.
+     */
+    public static Request getRequest(String url, String credential) {
+        return new Request.Builder()
+                .url(url)
+                .header("Authorization", credential)
+                .build();
+    }
+
+    /**
+     * Builds an authenticated POST request with a plain text body.
+     *
+     * @param url The target URL.
+     * @param objStr The string content to be sent as the request body.
+     * @param credential The credential used for authentication.
+     * @return The request.
+     */
+    public static Request postStringRequest(String url, String objStr, String credential) {
+        return new Request.Builder().url(url)
+                .post(RequestBody.create(TEXT_PLAIN, objStr))
+                .header("Authorization", credential)
+                .build();
+    }
+
+    /**
+     * Builds an authenticated multipart POST request uploading a single file.
+     *
+     * @param url The target URL.
+     * @param file The file to be uploaded.
+     * @param credential The credential used for authentication.
+     * @return The request.
+     */
+    public static Request postFileRequest(String url, File file, String credential) {
         RequestBody requestBody = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
                 .addFormDataPart("file", file.getName(),
                         RequestBody.create(MediaType.parse("multipart/form-data"), file))
                 .build();
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
                 .post(requestBody)
                 .header("Authorization", credential)
                 .build();
-        Response response = okHttpClient.newCall(request).execute();
-        if (!response.isSuccessful()) {
-            throw new IOException("Unexpected code " + response);
-        }
-        return response.body().string();
     }
 
     /**
-     * Post a request of type "application/x-www-form-urlencoded"
-     * @param url url
+     * Builds an authenticated "application/x-www-form-urlencoded" POST request.
+     *
+     * @param url The target URL.
      * @param fromData form data stored in Map
-     * @param credential credential
-     * @return result as String
-     * @throws IOException when request fails
+     * @param credential The credential used for authentication.
+     * @return The request.
      */
-    public static String postForm(String url, Map<String, String> fromData, String credential) throws IOException {
-
+    public static Request postFormRequest(String url, Map<String, String> fromData, String credential) {
         FormBody.Builder formBodyBuilder = new FormBody.Builder();
         fromData.forEach(formBodyBuilder::addEncoded);
-        RequestBody formBody = formBodyBuilder.build();
-
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(url)
-                .post(formBody)
+                .post(formBodyBuilder.build())
                 .header("Authorization", credential)
                 .build();
+    }
 
-        try (Response response = okHttpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response);
-            }
+    /**
+     * Returns the executor that decodes the responses of async calls unless they are given one of their own.
+     * @return shared decoder executor
+     */
+    public static Executor getDecoderExecutor() {
+        return SharedDecoder.EXECUTOR;
+    }
 
-            return Objects.requireNonNull(response.body()).string();
-        }
+    /**
+     * Creates a decoder whose daemon threads read at most {@code threads} responses at once. They are started on
+     * demand and end after a minute without work. A response handed over while all of them are busy is read on the
+     * dispatcher thread that received it, which holds its call slot meanwhile, so the dispatcher starts no new call
+     * until a response has been read, and no more than {@code threads} responses are read beyond those the dispatcher
+     * limits allow.
+     *
+     * @param threads The maximum number of decoder threads, usually the number of calls the dispatcher runs at once.
+     * @return The executor, to be shut down by the caller.
+     */
+    public static ExecutorService newDecoderExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "casibase-decoder-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("The decoder is shut down");
+                    }
+                    task.run();
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
+    /**
+     * Limits a decoder, such as one starting a virtual thread per task, to reading {@code maxConcurrency} responses at
+     * once. Beyond that, responses are read on the dispatcher thread that received them, as with
+     * {@link #newDecoderExecutor(int)}.
+     *
+     * @param executor The executor running the readers.
+     * @param maxConcurrency The maximum number of readers running on it at once.
+     * @return The bounded executor; shutting down the given one shuts it down.
+     */
+    public static Executor boundedDecoder(Executor executor, int maxConcurrency) {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        return task -> {
+            if (!permits.tryAcquire()) {
+                task.run();
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        };
     }
 
     /**
@@ -132,4 +414,12 @@ public class HttpClient {
     public static void setHttpClient(OkHttpClient customClient) {
         okHttpClient = customClient;
     }
+
+    /**
+     * Returns the shared http client used by the static methods of this class.
+     * @return shared http client
+     */
+    public static OkHttpClient getHttpClient() {
+        return okHttpClient;
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.util.http;
+
+import okhttp3.Response;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Thrown when the server answers with an unsuccessful HTTP status, so callers can tell e.g. a 503 or a 429 apart
+ * from a 404 without parsing the message.
+ */
+public class HttpStatusException extends IOException {
+    private final int code;
+    @Nullable
+    private final Duration retryAfter;
+
+    public HttpStatusException(Response response) {
+        super("Unexpected code " + response);
+        this.code = response.code();
+        this.retryAfter = parseRetryAfter(response.header("Retry-After"));
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return The delay requested by the {@code Retry-After} header, or null if there was none or it was invalid.
+     */
+    @Nullable
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Nullable
+    static Duration parseRetryAfter(@Nullable String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // not delay-seconds, try an HTTP-date
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.casbin.casibase.config.Config;
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.entity.Task;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.service.RecordBatcher;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CasibaseClientTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        client = new CasibaseClient(server.config());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    static Record newRecord(String name) {
+        Record record = new Record();
+        record.owner = CasibaseStandInServer.ORGANIZATION;
+        record.name = name;
+        record.organization = CasibaseStandInServer.ORGANIZATION;
+        record.action = "add-store";
+        return record;
+    }
+
+    @Test
+    public void testRecordLifecycle() throws IOException {
+        client.records().addRecord(newRecord("record_1"));
+        assertEquals(1, client.records().getRecords().size());
+
+        Record record = client.records().getRecord("record_1");
+        assertEquals("record_1", record.name);
+        assertEquals(1, record.id);
+
+        record.user = "admin";
+        client.records().updateRecord(record);
+        assertEquals("admin", client.records().getRecord("record_1").user);
+
+        client.records().deleteRecord(record);
+        assertNull(client.records().getRecord("record_1"));
+    }
+
+    @Test
+    public void testConnectionSettings() throws Exception {
+        Config config = server.config();
+        config.maxRequestsPerHost = 32;
+        config.maxIdleConnections = 16;
+        config.connectTimeout = Duration.ofMillis(500);
+        config.callTimeout = Duration.ofMillis(100);
+        config.http2 = false;
+        server.latency("get-tasks", Duration.ofMillis(500));
+        try (CasibaseClient configured = new CasibaseClient(config)) {
+            OkHttpClient httpClient = configured.getHttpClient();
+            assertNotSame(client.getHttpClient().connectionPool(), httpClient.connectionPool());
+            assertEquals(32, httpClient.dispatcher().getMaxRequestsPerHost());
+            assertEquals(500, httpClient.connectTimeoutMillis());
+            assertEquals(Collections.singletonList(Protocol.HTTP_1_1), httpClient.protocols());
+            assertThrows(InterruptedIOException.class, () -> configured.tasks().getTasks());
+        }
+        assertEquals(5, client.getHttpClient().dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Task task = new Task();
+            task.name = "task_" + i;
+            futures.add(client.tasks().addTaskAsync(task));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+        assertEquals(20, client.tasks().getTasksAsync().get().size());
+        assertEquals("task_7", client.tasks().getTaskAsync("task_7").get().name);
+    }
+
+    @Test
+    public void testCancellingAnAsyncReadCancelsTheCall() throws Exception {
+        server.seedRecords(Collections.singletonList(newRecord("record_1")));
+        server.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+        server.seedStores(Collections.singletonList(StoreCacheTest.newStore("store_1")));
+        server.latency(null, Duration.ofMillis(1500));
+        Config config = server.config();
+        config.maxRequestsPerHost = 16;
+        client.close();
+        client = new CasibaseClient(config);
+        List<CompletableFuture<?>> reads = new ArrayList<>();
+        reads.add(client.records().getRecordAsync("record_1"));
+        reads.add(client.records().getRecordsAsync());
+        reads.add(client.records().getPaginationRecordsAsync(1, 10, null));
+        reads.add(client.tasks().getTaskAsync("task_1"));
+        reads.add(client.tasks().getTasksAsync());
+        reads.add(client.stores().getStoreAsync("store_1"));
+        reads.add(client.stores().getStoresAsync());
+        reads.add(client.stores().getPaginationStoresAsync(1, 10, null));
+
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (client.getHttpClient().dispatcher().runningCallsCount() < reads.size() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(reads.size(), client.getHttpClient().dispatcher().runningCallsCount());
+        reads.forEach(read -> read.cancel(true));
+        // well before the server would have answered
+        deadline = System.nanoTime() + 1_000_000_000L;
+        while (client.getHttpClient().dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, client.getHttpClient().dispatcher().runningCallsCount());
+    }
+
+    @Test
+    public void testDecodingDoesNotHoldTheHostSlot() throws Exception {
+        server.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+        Config config = server.config();
+        config.maxRequestsPerHost = 1;
+        CountDownLatch decoding = new CountDownLatch(1);
+        AtomicInteger decoded = new AtomicInteger();
+        Executor stalledDecoder = task -> new Thread(() -> {
+            try {
+                decoding.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            decoded.incrementAndGet();
+            task.run();
+        }).start();
+        client.close();
+        client = CasibaseClient.builder(config).decoderExecutor(stalledDecoder).build();
+
+        CompletableFuture<Task> first = client.tasks().getTaskAsync("task_1");
+        CompletableFuture<Task> second = client.tasks().getTaskAsync("task_1");
+        // both calls reach the server although the first response is still waiting to be decoded
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (server.requestCount("get-task") < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, server.requestCount("get-task"));
+        assertFalse(first.isDone());
+
+        decoding.countDown();
+        assertEquals("task_1", first.get(2, TimeUnit.SECONDS).name);
+        assertEquals("task_1", second.get(2, TimeUnit.SECONDS).name);
+        assertEquals(2, decoded.get());
+    }
+
+    @Test
+    public void testDecoderThreadsAreBoundedByTheHostLimit() throws Exception {
+        server.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+        server.bodyDelay("get-task", Duration.ofMillis(20));
+        Config config = server.config();
+        config.maxRequestsPerHost = 2;
+        client.close();
+        client = new CasibaseClient(config);
+        int idle = liveDecoderThreads();
+
+        List<CompletableFuture<Task>> reads = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            reads.add(client.tasks().getTaskAsync("task_1"));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]));
+        int peak = 0;
+        while (!all.isDone()) {
+            peak = Math.max(peak, liveDecoderThreads() - idle);
+            Thread.sleep(1);
+        }
+        for (CompletableFuture<Task> read : reads) {
+            assertEquals("task_1", read.get().name);
+        }
+        assertTrue(peak > 0);
+        assertTrue(peak <= 2, "decoder threads: " + peak);
+    }
+
+    private static int liveDecoderThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("casibase-decoder")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testFailuresSurfaceAsIOException() {
+        server.failNext("get-task", 1, 404);
+        assertThrows(IOException.class, () -> client.tasks().getTask("missing"));
+
+        server.failNext("get-task", 1, 404);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> client.tasks().getTaskAsync("missing").get());
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    @Test
+    public void testStreamRecords() {
+        List<Record> seed = new ArrayList<>();
+        for (int i = 0; i < 1234; i++) {
+            seed.add(newRecord("record_" + i));
+        }
+        server.seedRecords(seed);
+
+        List<Integer> ids = client.records().streamRecords(100).map(record -> record.id).collect(Collectors.toList());
+        assertEquals(1234, ids.size());
+        assertEquals(1, ids.get(0));
+        assertEquals(1234, ids.get(1233));
+        assertEquals(13, server.requestCount("get-records"));
+
+        assertEquals(1234, client.records().iterateRecords(100).getTotal());
+        assertEquals(1234, client.records().streamRecords(50, 4, false).distinct().count());
+        assertEquals(ids, client.records().streamRecords(50, 4, true).map(record -> record.id).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRecordBatcher() {
+        server.latency("add-record", Duration.ofMillis(2));
+        AtomicInteger succeeded = new AtomicInteger();
+        try (RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .batchSize(10)
+                .maxInFlight(4)
+                .listener(new RecordBatcher.Listener() {
+                    @Override
+                    public void onSuccess(Record record, org.casbin.casibase.util.http.CasibaseResponse<String, Object> response) {
+                        succeeded.incrementAndGet();
+                    }
+                })
+                .build()) {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(batcher.add(newRecord("record_" + i)));
+            }
+            batcher.flush().join();
+        }
+        assertEquals(100, succeeded.get());
+        assertEquals(100, server.requestCount("add-record"));
+    }
+}
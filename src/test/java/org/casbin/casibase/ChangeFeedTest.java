@@ -0,0 +1,154 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.service.ChangeFeed;
+import org.casbin.casibase.service.ChangeFeed.Change;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stores.add(StoreCacheTest.newStore("store_" + i));
+        }
+        server.seedStores(stores);
+        client = new CasibaseClient(server.config());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testDiffBetweenPolls() throws IOException {
+        try (ChangeFeed<Store> feed = ChangeFeed.stores(client.stores()).build()) {
+            List<Change<Store>> changes = feed.poll();
+            assertEquals(3, changes.size());
+            assertTrue(changes.stream().allMatch(change -> change.getType() == Change.Type.ADDED));
+            assertTrue(feed.poll().isEmpty());
+
+            Store updated = StoreCacheTest.newStore("store_1");
+            updated.prompt = "You are a terse assistant.";
+            client.stores().updateStore(updated);
+            client.stores().deletedStore(StoreCacheTest.newStore("store_2"));
+            client.stores().addStore(StoreCacheTest.newStore("store_3"));
+
+            changes = feed.poll();
+            assertEquals(3, changes.size());
+            assertChange(changes, Change.Type.UPDATED, "store_1");
+            assertChange(changes, Change.Type.REMOVED, "store_2");
+            assertChange(changes, Change.Type.ADDED, "store_3");
+            assertEquals("You are a terse assistant.", find(changes, "store_1").getValue().prompt);
+            assertEquals(3, feed.size());
+        }
+    }
+
+    @Test
+    public void testIntervalAdaptsToChanges() throws Exception {
+        BlockingQueue<List<Change<Store>>> received = new LinkedBlockingQueue<>();
+        Duration min = Duration.ofMillis(10);
+        Duration max = Duration.ofMillis(80);
+        try (ChangeFeed<Store> feed = ChangeFeed.stores(client.stores()).interval(min, max).listener(received::add).build()) {
+            feed.start();
+            assertEquals(3, received.poll(5, TimeUnit.SECONDS).size());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!feed.getInterval().equals(max) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(max, feed.getInterval());
+
+            client.stores().addStore(StoreCacheTest.newStore("store_3"));
+            List<Change<Store>> changes = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(changes);
+            assertChange(changes, Change.Type.ADDED, "store_3");
+            assertTrue(feed.getInterval().compareTo(max) < 0);
+        }
+    }
+
+    @Test
+    public void testFailedEncodingKeepsThePreviousState() throws IOException {
+        List<Item> items = new ArrayList<>(Arrays.asList(new Item("a", "1"), new Item("b", "1")));
+        try (ChangeFeed<Item> feed = ChangeFeed.<Item>builder(() -> new ArrayList<>(items), item -> item.key, new ObjectMapper().writer()).build()) {
+            assertEquals(2, feed.poll().size());
+
+            items.set(0, new Item("a", "2"));
+            items.set(1, new Item("b", Item.UNENCODABLE));
+            assertThrows(IOException.class, feed::poll);
+
+            items.set(1, new Item("b", "2"));
+            List<Change<Item>> changes = feed.poll();
+            assertEquals(2, changes.size());
+            assertTrue(changes.stream().allMatch(change -> change.getType() == Change.Type.UPDATED));
+        }
+    }
+
+    public static class Item {
+        static final String UNENCODABLE = "unencodable";
+
+        public final String key;
+        private final String value;
+
+        Item(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getValue() {
+            if (UNENCODABLE.equals(value)) {
+                throw new IllegalStateException("Cannot encode " + key);
+            }
+            return value;
+        }
+    }
+
+    private static void assertChange(List<Change<Store>> changes, Change.Type type, String name) {
+        assertEquals(type, find(changes, name).getType());
+    }
+
+    private static Change<Store> find(List<Change<Store>> changes, String name) {
+        return changes.stream()
+                .filter(change -> change.getKey().equals(CasibaseStandInServer.ORGANIZATION + "/" + name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no change for " + name));
+    }
+}
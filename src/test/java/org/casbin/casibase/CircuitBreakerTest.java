@@ -0,0 +1,201 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.resilience.CallNotPermittedException;
+import org.casbin.casibase.resilience.CircuitBreaker;
+import org.casbin.casibase.resilience.CircuitBreakerConfig;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private CasibaseStandInServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private CasibaseClient newClient(CircuitBreakerConfig config) {
+        return CasibaseClient.builder(server.config())
+                .retryPolicy(RetryPolicy.none())
+                .circuitBreaker(config)
+                .build();
+    }
+
+    @Test
+    public void testOpensOnFailuresAndRecoversThroughHalfOpen() throws Exception {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .window(10, 4)
+                .failureRateThreshold(50)
+                .openDuration(Duration.ofMillis(200), 2)
+                .build();
+        try (CasibaseClient client = newClient(config)) {
+            CircuitBreaker breaker = client.getCircuitBreakers().get(server.endpoint());
+            List<CircuitBreaker.State> transitions = new CopyOnWriteArrayList<>();
+            breaker.addListener((b, from, to) -> transitions.add(to));
+
+            server.failNext("get-task", 2, 503);
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            client.tasks().getTask("task_1");
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            client.tasks().getTask("task_1");
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            // the open state starts from an empty window
+            assertEquals(-1f, breaker.getFailureRate());
+
+            // an open breaker fails fast, without reaching the server
+            assertThrows(CallNotPermittedException.class, () -> client.tasks().getTask("task_1"));
+            ExecutionException rejected = assertThrows(ExecutionException.class, () -> client.tasks().getTaskAsync("task_1").get());
+            assertTrue(rejected.getCause() instanceof CallNotPermittedException);
+            assertEquals(4, server.requestCount("get-task"));
+
+            Thread.sleep(250);
+            assertEquals("task_1", client.tasks().getTask("task_1").name);
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+            assertEquals("task_1", client.tasks().getTaskAsync("task_1").get().name);
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertEquals(Arrays.asList(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED), transitions);
+        }
+    }
+
+    @Test
+    public void testFailedProbeReopens() throws Exception {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .window(4, 2)
+                .openDuration(Duration.ofMillis(100), 1)
+                .build();
+        try (CasibaseClient client = newClient(config)) {
+            CircuitBreaker breaker = client.getCircuitBreakers().get(server.endpoint());
+            server.failNext("get-task", 3, 500);
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+            Thread.sleep(150);
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertThrows(CallNotPermittedException.class, () -> client.tasks().getTask("task_1"));
+            assertEquals(3, server.requestCount("get-task"));
+        }
+    }
+
+    @Test
+    public void testReleasedTrialPermitIsReusable() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerConfig.builder()
+                .window(2, 2)
+                .openDuration(Duration.ofMillis(10), 1)
+                .build());
+        IOException failure = new IOException("Connection reset");
+        breaker.tryAcquirePermission().onResult(0, failure);
+        breaker.tryAcquirePermission().onResult(0, failure);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(20);
+        CircuitBreaker.Permit trial = breaker.tryAcquirePermission();
+        assertNotNull(trial);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+        assertNull(breaker.tryAcquirePermission());
+
+        // e.g. the trial call was cancelled or refused by a limiter
+        trial.release();
+        CircuitBreaker.Permit retrial = breaker.tryAcquirePermission();
+        assertNotNull(retrial);
+        retrial.onResult(0, null);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testUndecidedHalfOpenOpensAgain() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", CircuitBreakerConfig.builder()
+                .window(2, 2)
+                .openDuration(Duration.ofMillis(10), 1)
+                .maxWaitInHalfOpen(Duration.ofMillis(30))
+                .build());
+        IOException failure = new IOException("Connection reset");
+        breaker.tryAcquirePermission().onResult(0, failure);
+        breaker.tryAcquirePermission().onResult(0, failure);
+        Thread.sleep(20);
+        assertNotNull(breaker.tryAcquirePermission());
+
+        // the trial permit is never settled
+        Thread.sleep(40);
+        assertNull(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(20);
+        assertNotNull(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testClientErrorsAndSlowCalls() throws Exception {
+        CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+                .window(4, 2)
+                .slowCallRateThreshold(100, Duration.ofMillis(50))
+                .build();
+        try (CasibaseClient client = newClient(config)) {
+            CircuitBreaker breaker = client.getCircuitBreakers().get(server.endpoint());
+
+            // a 404 is the caller's problem, not a sign of a failing server
+            server.failNext("get-task", 2, 404);
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertEquals(0f, breaker.getFailureRate());
+
+            server.latency("get-task", Duration.ofMillis(80));
+            client.tasks().getTask("task_1");
+            client.tasks().getTask("task_1");
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertEquals(50f, breaker.getSlowCallRate());
+            client.tasks().getTask("task_1");
+            client.tasks().getTask("task_1");
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).build()) {
+            assertTrue(client.getCircuitBreakers().isEmpty());
+            assertEquals("task_1", client.tasks().getTask("task_1").name);
+        }
+    }
+}
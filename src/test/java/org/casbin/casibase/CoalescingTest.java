@@ -0,0 +1,155 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.entity.Task;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.seedStores(Collections.singletonList(StoreCacheTest.newStore("store_1")));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.owner = CasibaseStandInServer.ORGANIZATION;
+            task.name = "task_" + i;
+            tasks.add(task);
+        }
+        server.seedTasks(tasks);
+        client = CasibaseClient.builder(server.config()).coalesce("get-store", "get-task").build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testConcurrentGetsShareOneCall() throws Exception {
+        server.latency("get-store", Duration.ofMillis(300));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Store>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return client.stores().getStore("store_1");
+                }));
+            }
+            start.countDown();
+            Store first = results.get(0).get();
+            for (Future<Store> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, server.requestCount("get-store"));
+
+        client.stores().getStore("store_1");
+        assertEquals(2, server.requestCount("get-store"));
+    }
+
+    @Test
+    public void testAsyncWaitersAreIndependent() throws Exception {
+        server.latency("get-task", Duration.ofMillis(200));
+        CompletableFuture<Task> leader = client.tasks().getTaskAsync("task_0");
+        CompletableFuture<Task> follower = client.tasks().getTaskAsync("task_0");
+        CompletableFuture<Task> other = client.tasks().getTaskAsync("task_1");
+        awaitRunningCalls(2);
+        leader.cancel(true);
+
+        // the shared call keeps running for the follower
+        Thread.sleep(50);
+        assertEquals(2, client.getHttpClient().dispatcher().runningCallsCount());
+        assertEquals("task_0", follower.get(5, TimeUnit.SECONDS).name);
+        assertEquals("task_1", other.get(5, TimeUnit.SECONDS).name);
+        assertTrue(leader.isCancelled());
+        assertEquals(2, server.requestCount("get-task"));
+
+        server.latency("get-tasks", Duration.ofMillis(200));
+        CompletableFuture<List<Task>> first = client.tasks().getTasksAsync();
+        CompletableFuture<List<Task>> second = client.tasks().getTasksAsync();
+        assertEquals(3, first.get().size());
+        assertEquals(3, second.get().size());
+        assertEquals(2, server.requestCount("get-tasks"));
+    }
+
+    @Test
+    public void testCancellingTheLastWaiterCancelsTheCall() throws Exception {
+        server.latency("get-task", Duration.ofSeconds(2));
+        CompletableFuture<Task> leader = client.tasks().getTaskAsync("task_2");
+        CompletableFuture<Task> follower = client.tasks().getTaskAsync("task_2");
+        awaitRunningCalls(1);
+
+        leader.cancel(true);
+        Thread.sleep(50);
+        assertEquals(1, client.getHttpClient().dispatcher().runningCallsCount());
+        assertFalse(follower.isDone());
+
+        follower.cancel(true);
+        // well before the server would have answered
+        awaitRunningCalls(0);
+        assertEquals(0, client.getHttpClient().dispatcher().runningCallsCount());
+    }
+
+    private void awaitRunningCalls(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (client.getHttpClient().dispatcher().runningCallsCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testFailuresAreSharedAndMutationsRejected() throws Exception {
+        server.latency("get-store", Duration.ofMillis(200)).failNext("get-store", 1, 404);
+        CompletableFuture<Store> first = client.stores().getStoreAsync("store_1");
+        CompletableFuture<Store> second = client.stores().getStoreAsync("store_1");
+        assertInstanceOf(IOException.class, assertThrows(Exception.class, first::join).getCause());
+        assertInstanceOf(IOException.class, assertThrows(Exception.class, second::join).getCause());
+        assertEquals(1, server.requestCount("get-store"));
+        assertEquals("store_1", client.stores().getStore("store_1").name);
+
+        assertThrows(IllegalArgumentException.class, () -> CasibaseClient.builder(server.config()).coalesce("update-store"));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.resilience.ConcurrencyLimiter;
+import org.casbin.casibase.resilience.LimitAlgorithm;
+import org.casbin.casibase.resilience.LimitExceededException;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+    private CasibaseStandInServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private List<CompletableFuture<CasibaseResponse<String, Object>>> addRecords(CasibaseClient client, int count) {
+        List<CompletableFuture<CasibaseResponse<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(client.records().addRecordAsync(CasibaseClientTest.newRecord("record_" + i)));
+        }
+        return futures;
+    }
+
+    @Test
+    public void testAimd() {
+        LimitAlgorithm aimd = LimitAlgorithm.aimd(10, 12, 0.5);
+        assertEquals(11, aimd.update(10, 10, 1_000_000, false));
+        // an unused limit does not grow
+        assertEquals(10, aimd.update(10, 2, 1_000_000, false));
+        assertEquals(12, aimd.update(12, 12, 1_000_000, false));
+        assertEquals(5, aimd.update(10, 10, 1_000_000, true));
+        assertEquals(1, aimd.update(1, 1, 1_000_000, true));
+    }
+
+    @Test
+    public void testVegasFollowsQueueing() {
+        LimitAlgorithm vegas = LimitAlgorithm.vegas(20, 100);
+        int limit = vegas.getInitialLimit();
+        for (int i = 0; i < 5; i++) {
+            limit = vegas.update(limit, limit, 10_000_000, false);
+        }
+        assertTrue(limit > 20);
+
+        // round trips twice the lowest one mean half of the calls are queueing at the server
+        int grown = limit;
+        for (int i = 0; i < 5; i++) {
+            limit = vegas.update(limit, limit, 20_000_000, false);
+        }
+        assertTrue(limit < grown);
+        assertTrue(vegas.update(limit, limit, 10_000_000, true) < limit);
+    }
+
+    @Test
+    public void testRejectsBeyondLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().algorithm(LimitAlgorithm.aimd(2, 2, 0.5)).reject().build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).concurrencyLimiter(limiter).build()) {
+            server.latency("add-record", Duration.ofMillis(300));
+            List<CompletableFuture<CasibaseResponse<String, Object>>> futures = addRecords(client, 4);
+            int rejected = 0;
+            for (CompletableFuture<CasibaseResponse<String, Object>> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof LimitExceededException);
+                    rejected++;
+                }
+            }
+            assertEquals(2, rejected);
+            assertEquals(2, limiter.getRejected());
+            assertEquals(2, server.requestCount("add-record"));
+            assertEquals(0, limiter.getInFlight());
+        }
+    }
+
+    @Test
+    public void testQueuesBeyondLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .algorithm(LimitAlgorithm.aimd(2, 2, 0.5))
+                .queue(10, Duration.ofSeconds(5))
+                .build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).concurrencyLimiter(limiter).build()) {
+            server.latency("add-record", Duration.ofMillis(100));
+            List<CompletableFuture<CasibaseResponse<String, Object>>> futures = addRecords(client, 6);
+            assertEquals(2, limiter.getInFlight());
+            assertEquals(4, limiter.getQueued());
+
+            // a cancelled call gives up its place in the queue
+            assertTrue(futures.get(5).cancel(false));
+            assertEquals(3, limiter.getQueued());
+
+            // a synchronous call waits for its turn as well
+            client.records().addRecord(CasibaseClientTest.newRecord("record_6"));
+            for (int i = 0; i < 5; i++) {
+                futures.get(i).get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(6, server.requestCount("add-record"));
+            assertEquals(0, limiter.getInFlight());
+            assertEquals(0, limiter.getQueued());
+        }
+    }
+
+    @Test
+    public void testQueueWaitIsBounded() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .algorithm(LimitAlgorithm.aimd(1, 1, 0.5))
+                .queue(10, Duration.ofMillis(50))
+                .build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).concurrencyLimiter(limiter).build()) {
+            server.latency("add-record", Duration.ofMillis(500));
+            List<CompletableFuture<CasibaseResponse<String, Object>>> futures = addRecords(client, 2);
+            ExecutionException error = assertThrows(ExecutionException.class, () -> futures.get(1).get());
+            assertTrue(error.getCause() instanceof LimitExceededException);
+            futures.get(0).get();
+            assertEquals(1, server.requestCount("add-record"));
+        }
+    }
+
+    @Test
+    public void testServedWaitersCancelTheirTimeout() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+                .algorithm(LimitAlgorithm.aimd(1, 1, 0.5))
+                .queue(10, Duration.ofHours(1))
+                .build();
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+        timer.setRemoveOnCancelPolicy(true);
+        try {
+            ConcurrencyLimiter.Permit first = limiter.acquire(timer).get();
+            CompletableFuture<ConcurrencyLimiter.Permit> second = limiter.acquire(timer);
+            CompletableFuture<ConcurrencyLimiter.Permit> third = limiter.acquire(timer);
+            assertEquals(2, timer.getQueue().size());
+
+            first.release();
+            second.get(1, TimeUnit.SECONDS).release();
+            third.get(1, TimeUnit.SECONDS);
+            assertTrue(limiter.acquire(timer).cancel(false));
+            // neither served nor cancelled waiters leave an hour-long timeout behind
+            assertEquals(0, timer.getQueue().size());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOverloadLowersLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().algorithm(LimitAlgorithm.aimd(10, 20, 0.5)).build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).concurrencyLimiter(limiter).build()) {
+            server.failNext("add-record", 1, 503);
+            assertThrows(IOException.class, () -> client.records().addRecord(CasibaseClientTest.newRecord("record_0")));
+            assertEquals(5, limiter.getLimit());
+            // a 404 is not a sign of overload
+            server.failNext("add-record", 1, 404);
+            assertThrows(IOException.class, () -> client.records().addRecord(CasibaseClientTest.newRecord("record_1")));
+            assertEquals(5, limiter.getLimit());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalGetTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stores.add(StoreCacheTest.newStore("store_" + i));
+        }
+        server.seedStores(stores);
+        client = CasibaseClient.builder(server.config()).conditionalGet(1 << 20, "get-stores", "get-store").build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testNotModifiedReturnsPreviousResult() throws Exception {
+        server.etags(true);
+        List<Store> first = client.stores().getStores();
+        long received = client.getMetrics().snapshot().getOperation("get-stores").getBytesReceived();
+        assertSame(first, client.stores().getStores());
+        assertSame(first, client.stores().getStoresAsync().get());
+        assertEquals(3, server.requestCount("get-stores"));
+        assertEquals(received, client.getMetrics().snapshot().getOperation("get-stores").getBytesReceived());
+
+        Store store = StoreCacheTest.newStore("store_0");
+        store.prompt = "Answer in French.";
+        client.stores().updateStore(store);
+        List<Store> second = client.stores().getStores();
+        assertNotSame(first, second);
+        assertTrue(second.stream().anyMatch(s -> "Answer in French.".equals(s.prompt)));
+    }
+
+    @Test
+    public void testUnchangedBodyIsNotDecodedAgain() throws Exception {
+        Store first = client.stores().getStore("store_1");
+        assertSame(first, client.stores().getStore("store_1"));
+        assertSame(first, client.stores().getStoreAsync("store_1").get());
+        assertNotSame(first, client.stores().getStore("store_2"));
+        assertEquals(4, server.requestCount("get-store"));
+
+        Store store = StoreCacheTest.newStore("store_1");
+        store.welcome = "Hello";
+        client.stores().updateStore(store);
+        assertEquals("Hello", client.stores().getStore("store_1").welcome);
+
+        assertThrows(IllegalArgumentException.class, () -> CasibaseClient.builder(server.config()).conditionalGet(1, "delete-store"));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Task;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.FanOut;
+import org.casbin.casibase.util.VirtualThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FanOutTest {
+    private CasibaseStandInServer server;
+    private ExecutorService executor;
+    private final List<String> names = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(RetryTest.newTask("task_" + i));
+            names.add(0, "task_" + i);
+        }
+        server.seedTasks(tasks);
+        executor = VirtualThreads.newExecutor("fan-out-test");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testMapReturnsResultsInKeyOrder() throws IOException {
+        server.latency("get-task", Duration.ofMillis(20));
+        try (CasibaseClient client = new CasibaseClient(server.config())) {
+            long start = System.nanoTime();
+            List<Task> tasks = FanOut.map(executor, names, client.tasks()::getTask);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(names.size(), tasks.size());
+            for (int i = 0; i < names.size(); i++) {
+                assertEquals(names.get(i), tasks.get(i).name);
+            }
+            // 50 calls of 20ms each overlap instead of running one after another
+            assertTrue(elapsedMillis < 50 * 20, "took " + elapsedMillis + "ms");
+        }
+    }
+
+    @Test
+    public void testFirstFailureCancelsTheOtherCalls() throws Exception {
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch interrupted = new CountDownLatch(3);
+        FanOut<String> scope = FanOut.open(executor);
+        for (int i = 0; i < 3; i++) {
+            scope.fork(() -> {
+                try {
+                    started.countDown();
+                    Thread.sleep(10_000);
+                    return "slow";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IOException(e);
+                }
+            });
+        }
+        scope.fork(() -> {
+            // fail only once the slow calls run; one cancelled before it started would never be interrupted
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("boom");
+        });
+
+        long start = System.nanoTime();
+        IOException error = assertThrows(IOException.class, scope::join);
+        assertEquals("boom", error.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        scope.close();
+    }
+
+    @Test
+    public void testClientRunsAsyncCallsOnTheGivenExecutor() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        ExecutorService dispatcher = Executors.newCachedThreadPool(r -> {
+            created.incrementAndGet();
+            return new Thread(r, "custom-dispatcher");
+        });
+        try {
+            try (CasibaseClient client = CasibaseClient.builder(server.config()).dispatcherExecutor(dispatcher).build()) {
+                assertEquals("task_1", client.tasks().getTaskAsync("task_1").get(5, TimeUnit.SECONDS).name);
+            }
+            assertTrue(created.get() > 0);
+            // the executor belongs to the caller, closing the client leaves it running
+            assertFalse(dispatcher.isShutdown());
+        } finally {
+            dispatcher.shutdownNow();
+        }
+
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).virtualThreads(true).build()) {
+            assertEquals("task_2", client.tasks().getTaskAsync("task_2").get(5, TimeUnit.SECONDS).name);
+        }
+    }
+}
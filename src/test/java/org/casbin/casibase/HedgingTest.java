@@ -0,0 +1,132 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.balancer.Endpoint;
+import org.casbin.casibase.resilience.HedgePolicy;
+import org.casbin.casibase.resilience.RetryBudget;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingTest {
+    private CasibaseStandInServer first;
+    private CasibaseStandInServer second;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        first = new CasibaseStandInServer().start();
+        second = new CasibaseStandInServer().start();
+        first.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+        second.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        first.close();
+        second.close();
+    }
+
+    private long hedges(CasibaseClient client) {
+        return client.getMetrics().snapshot().getOperation("get-task").getHedges();
+    }
+
+    @Test
+    public void testSlowAttemptIsHedgedOnAnotherEndpoint() throws Exception {
+        HedgePolicy policy = HedgePolicy.builder().delay(Duration.ofMillis(50)).build();
+        try (CasibaseClient client = CasibaseClient.builder(first.config())
+                .endpoints(first.endpoint(), second.endpoint())
+                .hedge(policy, "get-task")
+                .build()) {
+            first.latency("get-task", Duration.ofSeconds(2));
+            long start = System.nanoTime();
+            assertEquals("task_1", client.tasks().getTask("task_1").name);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(1, first.requestCount("get-task"));
+            assertEquals(1, second.requestCount("get-task"));
+            assertEquals(1, hedges(client));
+
+            // the slow attempt was cancelled rather than left running
+            Endpoint slow = client.getEndpoints().getEndpoints().get(0);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (slow.getOutstanding() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, slow.getOutstanding());
+        }
+    }
+
+    @Test
+    public void testFastCallsAreNotHedged() throws Exception {
+        HedgePolicy policy = HedgePolicy.builder().delay(Duration.ofMillis(500)).build();
+        try (CasibaseClient client = CasibaseClient.builder(first.config()).hedge(policy, "get-task").build()) {
+            for (int i = 0; i < 5; i++) {
+                assertEquals("task_1", client.tasks().getTaskAsync("task_1").get().name);
+            }
+            assertEquals(5, first.requestCount("get-task"));
+            assertEquals(0, hedges(client));
+        }
+    }
+
+    @Test
+    public void testHedgesAreCappedByTheBudget() throws Exception {
+        HedgePolicy policy = HedgePolicy.builder()
+                .delay(Duration.ofMillis(10))
+                .budget(new RetryBudget(0, 0, 2))
+                .build();
+        try (CasibaseClient client = CasibaseClient.builder(first.config()).hedge(policy, "get-task").build()) {
+            first.latency("get-task", Duration.ofMillis(100));
+            for (int i = 0; i < 5; i++) {
+                assertEquals("task_1", client.tasks().getTask("task_1").name);
+            }
+            assertEquals(2, hedges(client));
+            assertEquals(7, first.requestCount("get-task"));
+        }
+    }
+
+    @Test
+    public void testDelayFollowsLatencyPercentile() throws Exception {
+        HedgePolicy policy = HedgePolicy.builder()
+                .quantile(0.9, Duration.ofMillis(5))
+                .budget(new RetryBudget(0, 0, 1))
+                .build();
+        try (CasibaseClient client = CasibaseClient.builder(first.config()).hedge(policy, "get-task").build()) {
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(5), policy.delayNanos(client.getMetrics(), "get-task"));
+            first.latency("get-task", Duration.ofMillis(40));
+            for (int i = 0; i < 25; i++) {
+                client.tasks().getTask("task_1");
+            }
+            Thread.sleep(1100);
+            assertTrue(policy.delayNanos(client.getMetrics(), "get-task") >= TimeUnit.MILLISECONDS.toNanos(30));
+        }
+    }
+
+    @Test
+    public void testMutationsCannotBeHedged() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CasibaseClient.builder(first.config()).hedge(HedgePolicy.builder().build(), "add-record"));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.balancer.Endpoint;
+import org.casbin.casibase.balancer.LoadBalancer;
+import org.casbin.casibase.entity.Task;
+import org.casbin.casibase.resilience.CircuitBreaker;
+import org.casbin.casibase.resilience.CircuitBreakerConfig;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancingTest {
+    private CasibaseStandInServer first;
+    private CasibaseStandInServer second;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        first = new CasibaseStandInServer().start();
+        second = new CasibaseStandInServer().start();
+        first.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+        second.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        first.close();
+        second.close();
+    }
+
+    private CasibaseClient.Builder newClient() {
+        return CasibaseClient.builder(first.config())
+                .endpoints(first.endpoint(), second.endpoint())
+                .retryPolicy(RetryPolicy.builder().backoff(Duration.ofSeconds(2), Duration.ofSeconds(2), 1).build());
+    }
+
+    @Test
+    public void testRoundRobinSpreadsReadsAndWrites() throws Exception {
+        try (CasibaseClient client = newClient().build()) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals("task_1", client.tasks().getTask("task_1").name);
+            }
+            for (int i = 0; i < 4; i++) {
+                client.records().addRecordAsync(CasibaseClientTest.newRecord("record_" + i)).get();
+            }
+            assertEquals(5, first.requestCount("get-task"));
+            assertEquals(5, second.requestCount("get-task"));
+            assertEquals(2, first.requestCount("add-record"));
+            assertEquals(2, second.requestCount("add-record"));
+        }
+    }
+
+    @Test
+    public void testFailedGetsFailOverWithoutBackoff() throws Exception {
+        try (CasibaseClient client = newClient().build()) {
+            first.failNext("get-task", 1, 503);
+            long start = System.nanoTime();
+            assertEquals("task_1", client.tasks().getTask("task_1").name);
+            first.failNext("get-task", 1, 502);
+            assertEquals("task_1", client.tasks().getTaskAsync("task_1").get().name);
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+            assertEquals(2, second.requestCount("get-task"));
+        }
+    }
+
+    @Test
+    public void testMutationsDoNotFailOver() throws Exception {
+        try (CasibaseClient client = newClient().build()) {
+            first.failNext("add-record", 1, 503);
+            assertThrows(HttpStatusException.class, () -> client.records().addRecord(CasibaseClientTest.newRecord("record_0")));
+            client.records().addRecord(CasibaseClientTest.newRecord("record_1"));
+            assertEquals(1, first.requestCount("add-record"));
+            assertEquals(1, second.requestCount("add-record"));
+        }
+    }
+
+    @Test
+    public void testFailingEndpointIsEjected() throws Exception {
+        try (CasibaseClient client = newClient().outlierDetection(2, Duration.ofMillis(300)).build()) {
+            Endpoint failing = client.getEndpoints().getEndpoints().get(0);
+            first.errorRate("get-task", 1, 503);
+            for (int i = 0; i < 10; i++) {
+                assertEquals("task_1", client.tasks().getTask("task_1").name);
+            }
+            assertEquals(2, first.requestCount("get-task"));
+            assertEquals(10, second.requestCount("get-task"));
+            assertFalse(failing.isHealthy());
+
+            // once the ejection is over the endpoint is tried again, and a success readmits it
+            first.reset();
+            Thread.sleep(350);
+            assertTrue(failing.isHealthy());
+            for (int i = 0; i < 4; i++) {
+                client.tasks().getTask("task_1");
+            }
+            assertEquals(4, first.requestCount("get-task"));
+            assertEquals(0, failing.getConsecutiveFailures());
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingAvoidsBusyEndpoint() throws Exception {
+        try (CasibaseClient client = newClient().loadBalancer(LoadBalancer.leastOutstanding()).build()) {
+            first.latency("get-task", Duration.ofMillis(300));
+            CompletableFuture<Task> slow = client.tasks().getTaskAsync("task_1");
+            while (first.requestCount("get-task") == 0) {
+                Thread.sleep(1);
+            }
+            for (int i = 0; i < 5; i++) {
+                client.tasks().getTask("task_1");
+            }
+            assertEquals("task_1", slow.get().name);
+            assertEquals(1, first.requestCount("get-task"));
+            assertEquals(5, second.requestCount("get-task"));
+        }
+    }
+
+    @Test
+    public void testEwmaPrefersFasterEndpoint() throws Exception {
+        try (CasibaseClient client = newClient().loadBalancer(LoadBalancer.ewma()).build()) {
+            first.latency("get-task", Duration.ofMillis(100));
+            for (int i = 0; i < 10; i++) {
+                client.tasks().getTask("task_1");
+            }
+            assertTrue(first.requestCount("get-task") <= 2);
+            Endpoint slow = client.getEndpoints().getEndpoints().get(0);
+            Endpoint fast = client.getEndpoints().getEndpoints().get(1);
+            assertTrue(slow.getLatencyNanos() > fast.getLatencyNanos());
+        }
+    }
+
+    @Test
+    public void testOpenBreakerRoutesAround() throws Exception {
+        try (CasibaseClient client = newClient().circuitBreaker(CircuitBreakerConfig.defaults()).build()) {
+            assertEquals(2, client.getCircuitBreakers().size());
+            client.getCircuitBreakers().get(first.endpoint()).transitionTo(CircuitBreaker.State.OPEN);
+            for (int i = 0; i < 4; i++) {
+                client.tasks().getTask("task_1");
+            }
+            assertEquals(0, first.requestCount("get-task"));
+            assertEquals(4, second.requestCount("get-task"));
+        }
+    }
+}
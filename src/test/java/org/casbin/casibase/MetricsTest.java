@@ -0,0 +1,104 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.metrics.HistogramSnapshot;
+import org.casbin.casibase.metrics.LatencyHistogram;
+import org.casbin.casibase.metrics.MetricsSnapshot;
+import org.casbin.casibase.metrics.OperationSnapshot;
+import org.casbin.casibase.metrics.RequestEvent;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        client = new CasibaseClient(server.config());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10000, snapshot.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), snapshot.getMax());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(5000), snapshot.getP50(), TimeUnit.MICROSECONDS.toNanos(5000) * 0.04);
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(9900), snapshot.getP99(), TimeUnit.MICROSECONDS.toNanos(9900) * 0.04);
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(9990), snapshot.getP999(), TimeUnit.MICROSECONDS.toNanos(9990) * 0.04);
+        assertEquals(0, new LatencyHistogram().snapshot().getP99());
+    }
+
+    @Test
+    public void testOperationMetrics() throws Exception {
+        List<RequestEvent> events = new CopyOnWriteArrayList<>();
+        client.getMetrics().addListener(events::add);
+        server.latency("get-records", Duration.ofMillis(20));
+
+        MetricsSnapshot before = client.getMetrics().snapshot();
+        client.records().addRecord(CasibaseClientTest.newRecord("record_1"));
+        client.records().getRecords();
+        client.records().getRecordsAsync().get();
+        server.failNext("get-record", 1, 404);
+        assertThrows(IOException.class, () -> client.records().getRecord("record_1"));
+        MetricsSnapshot after = client.getMetrics().snapshot();
+
+        OperationSnapshot getRecords = after.getOperation("get-records");
+        assertEquals(2, getRecords.getRequests());
+        assertEquals(0, getRecords.getErrors());
+        assertTrue(getRecords.getBytesReceived() > 0);
+        assertTrue(getRecords.getHttpLatency().getP50() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(2, getRecords.getDecodeLatency().getCount());
+        assertTrue(getRecords.getLatency().getMax() >= getRecords.getHttpLatency().getMax());
+
+        OperationSnapshot addRecord = after.getOperation("add-record");
+        assertEquals(1, addRecord.getRequests());
+        assertTrue(addRecord.getBytesSent() > 0);
+
+        OperationSnapshot getRecord = after.getOperation("get-record");
+        assertEquals(1, getRecord.getErrors());
+        assertEquals(0, getRecord.getHttpLatency().getCount());
+
+        assertTrue(after.throughputSince(before, "get-records") > 0);
+        assertEquals(4, events.size());
+        assertFalse(events.get(3).isSuccess());
+        assertInstanceOf(IOException.class, events.get(3).getError());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublisherTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            records.add(CasibaseClientTest.newRecord("record_" + i));
+        }
+        server.seedRecords(records);
+        client = CasibaseClient.builder(server.config()).retryPolicy(RetryPolicy.none()).build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testPagesAreFetchedOnDemand() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        client.records().publishRecords(10).subscribe(subscriber);
+        Thread.sleep(50);
+        assertEquals(0, server.requestCount("get-records"));
+
+        subscriber.subscription.request(5);
+        assertEquals("record_0", subscriber.take().name);
+        for (int i = 1; i < 5; i++) {
+            assertEquals("record_" + i, subscriber.take().name);
+        }
+        assertEquals(1, server.requestCount("get-records"));
+
+        subscriber.subscription.request(10);
+        for (int i = 5; i < 15; i++) {
+            assertEquals("record_" + i, subscriber.take().name);
+        }
+        assertEquals(2, server.requestCount("get-records"));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        for (int i = 15; i < 25; i++) {
+            assertEquals("record_" + i, subscriber.take().name);
+        }
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(3, server.requestCount("get-records"));
+    }
+
+    @Test
+    public void testStalledSubscriberHoldsNoCall() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        client.records().publishRecords(20).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertEquals("record_0", subscriber.take().name);
+        // the rest of the page is buffered, so its call and connection are already released
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((client.getHttpClient().connectionPool().idleConnectionCount() == 0
+                || client.getHttpClient().dispatcher().runningCallsCount() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, client.getHttpClient().dispatcher().runningCallsCount());
+        assertEquals(1, client.getHttpClient().connectionPool().idleConnectionCount());
+        assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        for (int i = 1; i < 25; i++) {
+            assertEquals("record_" + i, subscriber.take().name);
+        }
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(2, server.requestCount("get-records"));
+    }
+
+    @Test
+    public void testCancelCancelsTheCallInFlight() throws Exception {
+        server.latency("get-records", Duration.ofSeconds(2));
+        TestSubscriber subscriber = new TestSubscriber();
+        client.records().publishRecords(20).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (client.getHttpClient().dispatcher().runningCallsCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, client.getHttpClient().dispatcher().runningCallsCount());
+
+        subscriber.subscription.cancel();
+        // well before the server would have answered
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (client.getHttpClient().dispatcher().runningCallsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, client.getHttpClient().dispatcher().runningCallsCount());
+        subscriber.subscription.request(10);
+        assertFalse(subscriber.terminated.await(100, TimeUnit.MILLISECONDS));
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(0, client.getHttpClient().dispatcher().runningCallsCount());
+    }
+
+    @Test
+    public void testFailureIsSignalled() throws Exception {
+        server.failNext("get-records", 1, 500);
+        TestSubscriber subscriber = new TestSubscriber();
+        client.records().publishRecords(10).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof HttpStatusException, String.valueOf(subscriber.error));
+    }
+
+    @Test
+    public void testNonPositiveRequestIsAnError() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber();
+        client.tasks().publishTasks(10).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    static class TestSubscriber implements Subscriber<Object> {
+        final BlockingQueue<Object> items = new LinkedBlockingQueue<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Object item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.countDown();
+        }
+
+        Record take() throws InterruptedException {
+            Object item = items.poll(5, TimeUnit.SECONDS);
+            assertNotNull(item, "no item within 5s");
+            return (Record) item;
+        }
+    }
+}
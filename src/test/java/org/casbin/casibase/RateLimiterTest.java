@@ -0,0 +1,199 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.resilience.LimitExceededException;
+import org.casbin.casibase.resilience.RateLimiter;
+import org.casbin.casibase.resilience.RateLimits;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.RecordOperations;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private CasibaseStandInServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.seedTasks(Collections.singletonList(RetryTest.newTask("task_1")));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testBurstThenRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(10, 3);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        Thread.sleep(110);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire(Duration.ofMillis(150)));
+    }
+
+    @Test
+    public void testWaitingCallersAreSpacedOut() throws Exception {
+        RateLimiter limiter = new RateLimiter(100, 1);
+        assertEquals(0, limiter.reserve(Long.MAX_VALUE));
+        long second = limiter.reserve(Long.MAX_VALUE);
+        long third = limiter.reserve(Long.MAX_VALUE);
+        assertTrue(second > 0 && second <= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(third > second && third <= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(-1, limiter.reserve(TimeUnit.MILLISECONDS.toNanos(5)));
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletableFuture<Void> permit = limiter.acquireAsync(timer);
+            assertFalse(permit.isDone());
+            permit.get(1, TimeUnit.SECONDS);
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelledAsyncAcquireGivesItsPermitBack() throws Exception {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+        timer.setRemoveOnCancelPolicy(true);
+        try {
+            RateLimiter limiter = new RateLimiter(10, 1);
+            assertTrue(limiter.tryAcquire());
+            CompletableFuture<Void> queued = limiter.acquireAsync(timer);
+            assertFalse(queued.isDone());
+            assertEquals(1, timer.getQueue().size());
+
+            queued.cancel(false);
+            assertTrue(timer.getQueue().isEmpty());
+            // the next caller takes the slot the cancelled one had reserved
+            long wait = limiter.reserve(Long.MAX_VALUE);
+            assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), "wait: " + wait);
+
+            // once a later caller has reserved a permit, a cancelled one is not given back
+            CompletableFuture<Void> overtaken = limiter.acquireAsync(timer);
+            long later = limiter.reserve(Long.MAX_VALUE);
+            overtaken.cancel(false);
+            assertTrue(timer.getQueue().isEmpty());
+            assertTrue(limiter.reserve(Long.MAX_VALUE) > later);
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersNeverExceedTheBucket() throws Exception {
+        RateLimiter limiter = new RateLimiter(0.001, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                counts.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire()) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> count : counts) {
+                total += count.get();
+            }
+            assertEquals(100, total);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOperationLimitFailsFast() throws Exception {
+        RateLimits limits = RateLimits.builder()
+                .operation(RecordOperations.ADD_Record, 1, 2)
+                .maxWait(Duration.ZERO)
+                .build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).rateLimits(limits).build()) {
+            client.records().addRecord(CasibaseClientTest.newRecord("record_0"));
+            client.records().addRecordAsync(CasibaseClientTest.newRecord("record_1")).get();
+            assertThrows(LimitExceededException.class, () -> client.records().addRecord(CasibaseClientTest.newRecord("record_2")));
+            assertEquals(2, server.requestCount("add-record"));
+            // other operations are not limited
+            for (int i = 0; i < 5; i++) {
+                client.tasks().getTask("task_1");
+            }
+        }
+    }
+
+    @Test
+    public void testCallsWaitForTheirPermits() throws Exception {
+        RateLimits limits = RateLimits.builder().operation(RecordOperations.ADD_Record, 20, 1).build();
+        try (CasibaseClient client = CasibaseClient.builder(server.config()).rateLimits(limits).build()) {
+            long start = System.nanoTime();
+            List<CompletableFuture<CasibaseResponse<String, Object>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(client.records().addRecordAsync(CasibaseClientTest.newRecord("record_" + i)));
+            }
+            client.records().addRecord(CasibaseClientTest.newRecord("record_4"));
+            for (CompletableFuture<CasibaseResponse<String, Object>> future : futures) {
+                future.get();
+            }
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190));
+            assertEquals(5, server.requestCount("add-record"));
+        }
+    }
+
+    @Test
+    public void testOrganizationLimitIsShared() throws Exception {
+        RateLimits limits = RateLimits.builder().organization(1, 3).maxWait(Duration.ZERO).build();
+        try (CasibaseClient first = CasibaseClient.builder(server.config()).rateLimits(limits).build();
+             CasibaseClient second = CasibaseClient.builder(server.config()).rateLimits(limits).build()) {
+            first.tasks().getTask("task_1");
+            first.records().addRecord(CasibaseClientTest.newRecord("record_0"));
+            second.tasks().getTask("task_1");
+            assertThrows(LimitExceededException.class, () -> second.tasks().getTask("task_1"));
+            assertThrows(LimitExceededException.class, () -> first.records().addRecord(CasibaseClientTest.newRecord("record_1")));
+        }
+    }
+}
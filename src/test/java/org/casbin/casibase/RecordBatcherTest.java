@@ -0,0 +1,225 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.service.RecordBatcher;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.CasibaseResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.casbin.casibase.CasibaseClientTest.newRecord;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordBatcherTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+    private final Queue<String> succeeded = new ConcurrentLinkedQueue<>();
+    private final Queue<String> failed = new ConcurrentLinkedQueue<>();
+    private final RecordBatcher.Listener listener = new RecordBatcher.Listener() {
+        @Override
+        public void onSuccess(Record record, CasibaseResponse<String, Object> response) {
+            succeeded.add(record.name);
+        }
+
+        @Override
+        public void onFailure(Record record, Throwable error) {
+            failed.add(record.name);
+        }
+    };
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        client = CasibaseClient.builder(server.config()).retryPolicy(RetryPolicy.none()).build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testNoRecordIsLostWhenClosingUnderLoad() throws Exception {
+        RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .capacity(64)
+                .batchSize(8)
+                .flushInterval(Duration.ofMillis(5))
+                .listener(listener)
+                .build();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(4);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                running.countDown();
+                for (int i = 0; ; i++) {
+                    if (!batcher.add(newRecord("record_" + producer + "_" + i))) {
+                        return;
+                    }
+                    accepted.incrementAndGet();
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        running.await();
+        Thread.sleep(50);
+        batcher.close();
+        for (Thread thread : producers) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(thread.isAlive());
+        }
+
+        assertTrue(accepted.get() > 0);
+        assertEquals(0, batcher.size());
+        assertTrue(failed.isEmpty());
+        assertEquals(accepted.get(), succeeded.size());
+        assertEquals(accepted.get(), server.requestCount("add-record"));
+        assertFalse(batcher.add(newRecord("late")));
+    }
+
+    @Test
+    public void testDropOldestEvictsTheOldestWaitingRecord() {
+        AtomicInteger dropped = new AtomicInteger();
+        try (RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .capacity(3)
+                .batchSize(100)
+                .flushInterval(Duration.ofHours(1))
+                .overflowPolicy(RecordBatcher.OverflowPolicy.DROP_OLDEST)
+                .listener(new RecordBatcher.Listener() {
+                    @Override
+                    public void onSuccess(Record record, CasibaseResponse<String, Object> response) {
+                        listener.onSuccess(record, response);
+                    }
+
+                    @Override
+                    public void onFailure(Record record, Throwable error) {
+                        assertInstanceOf(RejectedExecutionException.class, error);
+                        dropped.incrementAndGet();
+                        listener.onFailure(record, error);
+                    }
+                })
+                .build()) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(batcher.add(newRecord("record_" + i)));
+            }
+            assertEquals(3, batcher.size());
+            batcher.flush().join();
+        }
+        assertEquals(2, dropped.get());
+        assertEquals(Arrays.asList("record_0", "record_1"), new ArrayList<>(failed));
+        assertEquals(new HashSet<>(Arrays.asList("record_2", "record_3", "record_4")), new HashSet<>(succeeded));
+        assertEquals(3, server.requestCount("add-record"));
+    }
+
+    @Test
+    public void testDropOldestUnderContentionAccountsForEveryRecord() throws Exception {
+        RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .capacity(4)
+                .batchSize(2)
+                .flushInterval(Duration.ofMillis(1))
+                .overflowPolicy(RecordBatcher.OverflowPolicy.DROP_OLDEST)
+                .listener(listener)
+                .build();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    assertTrue(batcher.add(newRecord("record_" + producer + "_" + i)));
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        for (Thread thread : producers) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive());
+        }
+        batcher.close();
+
+        assertEquals(0, batcher.size());
+        assertEquals(800, succeeded.size() + failed.size());
+        assertEquals(succeeded.size(), server.requestCount("add-record"));
+    }
+
+    @Test
+    public void testBlockWaitsForRoom() throws Exception {
+        try (RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .capacity(2)
+                .batchSize(100)
+                .flushInterval(Duration.ofHours(1))
+                .overflowPolicy(RecordBatcher.OverflowPolicy.BLOCK)
+                .listener(listener)
+                .build()) {
+            assertTrue(batcher.add(newRecord("record_0")));
+            assertTrue(batcher.add(newRecord("record_1")));
+            CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> batcher.add(newRecord("record_2")));
+            Thread.sleep(100);
+            assertFalse(blocked.isDone());
+
+            batcher.flush().join();
+            assertTrue(blocked.get(5, TimeUnit.SECONDS));
+            batcher.flush().join();
+        }
+        assertTrue(failed.isEmpty());
+        assertEquals(3, succeeded.size());
+        assertEquals(3, server.requestCount("add-record"));
+    }
+
+    @Test
+    public void testCloseReleasesBlockedProducers() throws Exception {
+        RecordBatcher batcher = RecordBatcher.builder(client.records())
+                .capacity(1)
+                .batchSize(100)
+                .flushInterval(Duration.ofHours(1))
+                .overflowPolicy(RecordBatcher.OverflowPolicy.BLOCK)
+                .listener(listener)
+                .build();
+        assertTrue(batcher.add(newRecord("record_0")));
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> batcher.add(newRecord("record_1")));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        batcher.close();
+        assertFalse(blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("record_0"), new ArrayList<>(succeeded));
+        assertEquals(1, server.requestCount("add-record"));
+    }
+}
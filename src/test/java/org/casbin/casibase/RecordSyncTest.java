@@ -0,0 +1,167 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Record;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.service.RecordSync;
+import org.casbin.casibase.service.RecordSync.Watermark;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordSyncTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Record> records = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            records.add(newRecord(i, i));
+        }
+        server.seedRecords(records);
+        client = new CasibaseClient(server.config());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    static Record newRecord(int id, int second) {
+        Record record = CasibaseClientTest.newRecord("record_" + id);
+        record.id = id;
+        record.createdTime = String.format("2025-01-01T10:00:%02d+08:00", second);
+        return record;
+    }
+
+    @Test
+    public void testPollsHandOutNewRecordsInOrder() throws IOException {
+        RecordSync sync = RecordSync.builder(client.records()).pageSize(10).maxBatchSize(20).build();
+
+        RecordSync.Batch first = sync.poll();
+        RecordSync.Batch second = sync.poll();
+        assertEquals(20, first.getRecords().size());
+        assertEquals(10, second.getRecords().size());
+        assertEquals(1, first.getRecords().get(0).id);
+        assertEquals(30, second.getRecords().get(9).id);
+        for (int i = 1; i < first.getRecords().size(); i++) {
+            assertTrue(RecordSync.ORDER.compare(first.getRecords().get(i - 1), first.getRecords().get(i)) < 0);
+        }
+        assertEquals(Watermark.of(second.getRecords().get(9)), sync.getWatermark());
+
+        assertTrue(sync.poll().isEmpty());
+        long pages = sync.getPagesFetched();
+
+        client.records().addRecord(newRecord(31, 40));
+        client.records().addRecord(newRecord(32, 41));
+        RecordSync.Batch third = sync.poll();
+        assertEquals(2, third.getRecords().size());
+        assertEquals(31, third.getRecords().get(0).id);
+        assertEquals(32, third.getRecords().get(1).id);
+        // the walk resumes at the page holding the watermark, which is full, so the new records are on the next one
+        assertEquals(pages + 2, sync.getPagesFetched());
+    }
+
+    @Test
+    public void testCatchUpHoldsOneBatchAtATime() throws IOException {
+        RecordSync sync = RecordSync.builder(client.records()).pageSize(5).maxBatchSize(10).build();
+        List<Record> all = new ArrayList<>();
+        for (RecordSync.Batch batch = sync.poll(); !batch.isEmpty(); batch = sync.poll()) {
+            assertTrue(batch.getRecords().size() <= 10);
+            // nothing beyond one batch and one page is collected ahead of time
+            assertTrue(sync.getPending() <= 5, "pending " + sync.getPending());
+            all.addAll(batch.getRecords());
+        }
+        assertEquals(30, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).id);
+        }
+    }
+
+    @Test
+    public void testRestoredWatermarkIsFoundWithoutReadingTheWholeHistory() throws IOException {
+        RecordSync sync = RecordSync.builder(client.records())
+                .pageSize(2)
+                .watermark(Watermark.of(newRecord(25, 25)))
+                .build();
+        RecordSync.Batch batch = sync.poll();
+        assertEquals(5, batch.getRecords().size());
+        assertEquals(26, batch.getRecords().get(0).id);
+        // 15 pages, of which a walk from the first would read 16
+        assertTrue(sync.getPagesFetched() < 12, "fetched " + sync.getPagesFetched());
+    }
+
+    @Test
+    public void testBatchDoesNotEndInsideACreatedTime() throws IOException {
+        for (int id = 31; id <= 35; id++) {
+            client.records().addRecord(newRecord(id, 40));
+        }
+        RecordSync sync = RecordSync.builder(client.records())
+                .pageSize(2)
+                .maxBatchSize(1)
+                .watermark(Watermark.of(newRecord(30, 30)))
+                .build();
+        List<Integer> ids = new ArrayList<>();
+        RecordSync.Batch first = sync.poll();
+        // the records sharing a createdTime are collected together, whatever order the server lists them in
+        assertEquals(4, sync.getPending());
+        ids.add(first.getRecords().get(0).id);
+        for (RecordSync.Batch batch = sync.poll(); !batch.isEmpty(); batch = sync.poll()) {
+            assertEquals(1, batch.getRecords().size());
+            ids.add(batch.getRecords().get(0).id);
+        }
+        assertEquals(Arrays.asList(31, 32, 33, 34, 35), ids);
+    }
+
+    @Test
+    public void testSavedWatermarkResumesAfterRestart() throws IOException {
+        RecordSync sync = RecordSync.builder(client.records()).maxBatchSize(25).build();
+        String saved = sync.poll().getWatermark().toString();
+        assertEquals("25/2025-01-01T10:00:25+08:00", saved);
+
+        RecordSync resumed = RecordSync.builder(client.records()).watermark(Watermark.parse(saved)).build();
+        RecordSync.Batch batch = resumed.poll();
+        assertEquals(5, batch.getRecords().size());
+        assertEquals(26, batch.getRecords().get(0).id);
+
+        assertEquals(Watermark.NONE, Watermark.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Watermark.parse("2025-01-01"));
+    }
+
+    @Test
+    public void testRecordsSharingTheWatermarkTimeAreToldApartById() throws IOException {
+        client.records().addRecord(newRecord(31, 30));
+        RecordSync sync = RecordSync.builder(client.records())
+                .watermark(Watermark.of("2025-01-01T10:00:30+08:00", 30))
+                .build();
+        RecordSync.Batch batch = sync.poll();
+        assertEquals(1, batch.getRecords().size());
+        assertEquals(31, batch.getRecords().get(0).id);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Task;
+import org.casbin.casibase.metrics.OperationSnapshot;
+import org.casbin.casibase.metrics.RequestEvent;
+import org.casbin.casibase.resilience.RetryBudget;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.http.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        server.seedTasks(Collections.singletonList(newTask("task_1")));
+        client = CasibaseClient.builder(server.config())
+                .retryPolicy(RetryPolicy.builder().backoff(Duration.ofMillis(1), Duration.ofMillis(10), 2).build())
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    static Task newTask(String name) {
+        Task task = new Task();
+        task.owner = CasibaseStandInServer.ORGANIZATION;
+        task.name = name;
+        return task;
+    }
+
+    @Test
+    public void testTransientFailuresOfGetsAreRetried() throws Exception {
+        List<RequestEvent> events = new CopyOnWriteArrayList<>();
+        client.getMetrics().addListener(events::add);
+
+        server.failNext("get-task", 2, 503);
+        assertEquals("task_1", client.tasks().getTask("task_1").name);
+        server.failNext("get-task", 1, 500);
+        assertEquals("task_1", client.tasks().getTaskAsync("task_1").get().name);
+        assertEquals(5, server.requestCount("get-task"));
+
+        server.failNext("get-task", 3, 502);
+        HttpStatusException error = assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+        assertEquals(502, error.getCode());
+        server.failNext("get-task", 1, 404);
+        assertThrows(HttpStatusException.class, () -> client.tasks().getTask("task_1"));
+        assertEquals(9, server.requestCount("get-task"));
+
+        OperationSnapshot getTask = client.getMetrics().snapshot().getOperation("get-task");
+        assertEquals(4, getTask.getRequests());
+        assertEquals(5, getTask.getRetries());
+        assertEquals(2, getTask.getErrors());
+        assertEquals(3, events.get(0).getAttempts());
+        assertEquals(2, events.get(1).getAttempts());
+
+        // OkHttp transparently retries a dropped connection once, so drop it until our policy has to step in
+        server.failNext("get-task", 2, 0);
+        assertEquals("task_1", client.tasks().getTaskAsync("task_1").get().name);
+    }
+
+    @Test
+    public void testMutationsAreRetriedOnlyWhenOptedIn() throws Exception {
+        server.failNext("add-task", 1, 503);
+        assertThrows(IOException.class, () -> client.tasks().addTask(newTask("task_2")));
+        server.failNext("add-task", 1, 503);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> client.tasks().addTaskAsync(newTask("task_2")).get());
+        assertInstanceOf(HttpStatusException.class, error.getCause());
+        assertEquals(2, server.requestCount("add-task"));
+
+        try (CasibaseClient retrying = CasibaseClient.builder(server.config())
+                .retryPolicy(RetryPolicy.builder().retryMutations(true).backoff(Duration.ofMillis(1), Duration.ofMillis(1), 1).build())
+                .build()) {
+            server.failNext("add-task", 1, 503);
+            assertEquals("Affected", retrying.tasks().addTask(newTask("task_2")).getData());
+        }
+        assertEquals(4, server.requestCount("add-task"));
+    }
+
+    @Test
+    public void testRetryAfterIsHonouredAndCapped() throws Exception {
+        server.retryAfter(Duration.ofSeconds(1)).failNext("get-task", 1, 429);
+        long start = System.nanoTime();
+        client.tasks().getTask("task_1");
+        assertTrue(System.nanoTime() - start >= Duration.ofSeconds(1).toNanos());
+
+        try (CasibaseClient impatient = CasibaseClient.builder(server.config())
+                .retryPolicy(RetryPolicy.builder().maxRetryAfter(Duration.ofMillis(100)).build())
+                .build()) {
+            server.failNext("get-task", 1, 429);
+            HttpStatusException error = assertThrows(HttpStatusException.class, () -> impatient.tasks().getTask("task_1"));
+            assertEquals(Duration.ofSeconds(1), error.getRetryAfter());
+        }
+    }
+
+    @Test
+    public void testBudgetStopsRetryStorms() throws Exception {
+        try (CasibaseClient budgeted = CasibaseClient.builder(server.config())
+                .retryPolicy(RetryPolicy.builder()
+                        .backoff(Duration.ofMillis(1), Duration.ofMillis(1), 1)
+                        .budget(new RetryBudget(0, 0, 2))
+                        .build())
+                .build()) {
+            server.errorRate("get-task", 1, 503);
+            for (int i = 0; i < 5; i++) {
+                assertThrows(HttpStatusException.class, () -> budgeted.tasks().getTask("task_1"));
+            }
+            assertEquals(7, server.requestCount("get-task"));
+            assertEquals(0, budgeted.getRetryPolicy().getBudget().getAvailable());
+        }
+    }
+
+    @Test
+    public void testBudgetRefillSurvivesLongIdlePeriods() {
+        AtomicLong clock = new AtomicLong(Long.MAX_VALUE - TimeUnit.DAYS.toNanos(1));
+        RetryBudget budget = new RetryBudget(0, 10, 5, clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryRetry());
+        }
+        assertFalse(budget.tryRetry());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(2, budget.getAvailable());
+        // (now - last) * refillPerSecond overflowed after about 10.7 days without a refill
+        clock.addAndGet(TimeUnit.DAYS.toNanos(30));
+        assertEquals(5, budget.getAvailable());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryRetry());
+        }
+        assertFalse(budget.tryRetry());
+        clock.addAndGet(TimeUnit.DAYS.toNanos(365 * 100));
+        assertEquals(5, budget.getAvailable());
+    }
+}
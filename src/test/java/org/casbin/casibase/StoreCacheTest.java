@@ -0,0 +1,132 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.casbin.casibase.util.CacheStats;
+import org.casbin.casibase.util.LruCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreCacheTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            stores.add(newStore("store_" + i));
+        }
+        server.seedStores(stores);
+        client = CasibaseClient.builder(server.config()).storeCache(Duration.ofMinutes(1), 1 << 20).build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    static Store newStore(String name) {
+        Store store = new Store();
+        store.owner = CasibaseStandInServer.ORGANIZATION;
+        store.name = name;
+        store.prompt = "You are a helpful assistant.";
+        return store;
+    }
+
+    @Test
+    public void testReadThroughAndInvalidation() throws Exception {
+        assertEquals("store_1", client.stores().getStore("store_1").name);
+        assertSame(client.stores().getStore("store_1"), client.stores().getStoreAsync("store_1").get());
+        assertEquals(10, client.stores().getStores().size());
+        assertEquals(10, client.stores().getStoresAsync().get().size());
+        assertEquals(1, server.requestCount("get-store"));
+        assertEquals(1, server.requestCount("get-stores"));
+
+        Store store = newStore("store_1");
+        store.prompt = "Answer in French.";
+        client.stores().updateStore(store);
+        assertEquals("Answer in French.", client.stores().getStore("store_1").prompt);
+        assertEquals(2, server.requestCount("get-store"));
+        client.stores().getStores();
+        assertEquals(2, server.requestCount("get-stores"));
+
+        client.stores().deletedStoreAsync(store).get();
+        assertNull(client.stores().getStore("store_1"));
+        assertEquals(9, client.stores().getStores().size());
+
+        CacheStats stats = client.stores().getCacheStats();
+        assertEquals(3, stats.getHits());
+        assertEquals(6, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+        assertTrue(stats.getWeight() > 0);
+    }
+
+    @Test
+    public void testEvictionAndExpiration() throws Exception {
+        // entries weigh as much as the responses they were decoded from
+        client.stores().getStore("store_0");
+        long weight = client.stores().getCacheStats().getWeight();
+        assertTrue(weight > client.getObjectMapper().writeValueAsBytes(newStore("store_0")).length);
+        try (CasibaseClient small = CasibaseClient.builder(server.config()).storeCache(Duration.ofMillis(200), weight * 3).build()) {
+            for (int i = 0; i < 5; i++) {
+                small.stores().getStore("store_" + i);
+            }
+            CacheStats stats = small.stores().getCacheStats();
+            assertEquals(2, stats.getEvictions());
+            assertEquals(3, stats.getEntries());
+
+            small.stores().getStore("store_4");
+            assertEquals(6, server.requestCount("get-store"));
+            Thread.sleep(300);
+            small.stores().getStore("store_4");
+            assertEquals(7, server.requestCount("get-store"));
+            assertEquals(1, small.stores().getCacheStats().getExpirations());
+        }
+        try (CasibaseClient uncached = new CasibaseClient(server.config())) {
+            assertNull(uncached.stores().getCacheStats());
+        }
+    }
+
+    @Test
+    public void testLoadRacingInvalidationIsDiscarded() {
+        LruCache<String, String> cache = new LruCache<>(1, TimeUnit.MINUTES, 100, String::length);
+        long generation = cache.generation();
+        cache.invalidate("a");
+        cache.put("a", "stale", generation);
+        assertNull(cache.get("a"));
+
+        cache.put("a", "fresh", cache.generation());
+        assertEquals("fresh", cache.get("a"));
+        cache.put("b", new String(new char[101]), cache.generation());
+        assertNull(cache.get("b"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase;
+
+import org.casbin.casibase.entity.Store;
+import org.casbin.casibase.resilience.RetryPolicy;
+import org.casbin.casibase.service.CasibaseClient;
+import org.casbin.casibase.service.StoreReplica;
+import org.casbin.casibase.support.CasibaseStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreReplicaTest {
+    private CasibaseStandInServer server;
+    private CasibaseClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new CasibaseStandInServer().start();
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stores.add(StoreCacheTest.newStore("store_" + i));
+        }
+        server.seedStores(stores);
+        client = CasibaseClient.builder(server.config()).retryPolicy(RetryPolicy.none()).build();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testRefreshSwapsInANewSnapshot() throws Exception {
+        try (StoreReplica replica = StoreReplica.builder(client.stores()).refreshInterval(Duration.ofHours(1)).build()) {
+            assertNull(replica.get("store_0"));
+            replica.start();
+            StoreReplica.Snapshot first = replica.getSnapshot();
+            assertEquals(1, first.getVersion());
+            assertEquals(3, first.getStores().size());
+            assertEquals("You are a helpful assistant.", replica.get("store_1").prompt);
+
+            Store updated = StoreCacheTest.newStore("store_1");
+            updated.prompt = "You are a terse assistant.";
+            client.stores().updateStore(updated);
+            client.stores().deletedStore(StoreCacheTest.newStore("store_2"));
+            replica.refresh();
+
+            assertEquals(2, replica.getVersion());
+            assertEquals("You are a terse assistant.", replica.get("store_1").prompt);
+            assertNull(replica.get("store_2"));
+            // the earlier snapshot is untouched
+            assertEquals("You are a helpful assistant.", first.get("store_1").prompt);
+            assertNotNull(first.get("store_2"));
+            assertThrows(UnsupportedOperationException.class, () -> replica.getSnapshot().getStores().clear());
+
+            Thread.sleep(20);
+            StoreReplica.Snapshot before = replica.getSnapshot();
+            replica.refresh();
+            assertEquals(2, replica.getVersion());
+            assertSame(before.getStores(), replica.getSnapshot().getStores());
+            assertTrue(replica.getAge().compareTo(before.getAge()) < 0);
+        }
+    }
+
+    @Test
+    public void testFailedRefreshKeepsTheSnapshot() throws Exception {
+        try (StoreReplica replica = StoreReplica.builder(client.stores()).refreshInterval(Duration.ofHours(1)).build()) {
+            replica.start();
+            StoreReplica.Snapshot snapshot = replica.getSnapshot();
+
+            server.failNext("get-stores", 1, 500);
+            assertThrows(IOException.class, replica::refresh);
+            assertSame(snapshot, replica.getSnapshot());
+            assertEquals(1, replica.getRefreshFailures());
+            assertNotNull(replica.getLastError());
+
+            replica.refresh();
+            assertNull(replica.getLastError());
+            assertEquals(1, replica.getVersion());
+        }
+    }
+
+    @Test
+    public void testRefreshBypassesTheStoreCache() throws Exception {
+        try (CasibaseClient cached = CasibaseClient.builder(server.config()).storeCache(Duration.ofHours(1), 1 << 20).build();
+             StoreReplica replica = StoreReplica.builder(cached.stores()).refreshInterval(Duration.ofHours(1)).build()) {
+            assertEquals(3, cached.stores().getStores().size());
+            replica.start();
+            // a store added by another client, which does not invalidate this client's cache
+            client.stores().addStore(StoreCacheTest.newStore("store_3"));
+            Thread.sleep(20);
+            replica.refresh();
+
+            assertNotNull(replica.get("store_3"));
+            assertEquals(2, replica.getVersion());
+            assertTrue(replica.getAge().compareTo(Duration.ofMillis(20)) < 0);
+            assertEquals(3, server.requestCount("get-stores"));
+        }
+    }
+
+    @Test
+    public void testBackgroundRefresh() throws Exception {
+        try (StoreReplica replica = StoreReplica.builder(client.stores()).refreshInterval(Duration.ofMillis(20)).build()) {
+            replica.start();
+            client.stores().addStore(StoreCacheTest.newStore("store_3"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (replica.get("store_3") == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(replica.get("store_3"));
+            assertEquals(2, replica.getVersion());
+        }
+    }
+
+    @Test
+    public void testStartIsIdempotentAndRefusedOnceClosed() throws Exception {
+        StoreReplica replica = StoreReplica.builder(client.stores()).refreshInterval(Duration.ofMillis(50)).build();
+        replica.start();
+        replica.start();
+        Thread.sleep(260);
+        replica.close();
+        int requests = server.requestCount("get-stores");
+        // the first load and about five refreshes, not twice as many
+        assertTrue(requests <= 7, "requests: " + requests);
+
+        assertThrows(IllegalStateException.class, replica::start);
+        assertEquals(requests, server.requestCount("get-stores"));
+    }
+}
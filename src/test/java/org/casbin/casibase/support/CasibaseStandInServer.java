@@ -0,0 +1,496 @@
+/*
+ * 	Copyright 2025 The Casibase Authors. All Rights Reserved.
+ *
+ * 	Licensed under the Apache License, Version 2.0 (the "License");
+ * 	you may not use this file except in compliance with the License.
+ * 	You may obtain a copy of the License at
+ *
+ * 	     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * 	Unless required by applicable law or agreed to in writing, software
+ * 	distributed under the License is distributed on an "AS IS" BASIS,
+ * 	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * 	See the License for the specific language governing permissions and
+ * 	limitations under the License.
+ */
+
+package org.casbin.casibase.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.casbin.casibase.config.Config;
+import org.casbin.casibase.util.RecordOperations;
+import org.casbin.casibase.util.StoreOperations;
+import org.casbin.casibase.util.TaskOperations;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process stand-in for a Casibase server, for tests and benchmarks that must not depend on the network.
+ * <p>
+ * It implements every endpoint of {@link RecordOperations}, {@link TaskOperations} and {@link StoreOperations}
+ * on in-memory tables, including {@code p}/{@code pageSize} pagination, {@code field}/{@code value} filtering and
+ * {@code sortField}/{@code sortOrder} sorting of the listings. Latency and failures can be injected per operation.
+ * <pre>
+ * try (CasibaseStandInServer server = new CasibaseStandInServer().start()) {
+ *     server.latency(null, Duration.ofMillis(5)).errorRate("get-store", 0.01, 503);
+ *     CasibaseClient client = new CasibaseClient(server.config());
+ * }
+ * </pre>
+ */
+public class CasibaseStandInServer implements AutoCloseable {
+
+    public static final String ORGANIZATION = "casbin";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MockWebServer server = new MockWebServer();
+
+    private final Table records = new Table(true);
+    private final Table tasks = new Table(false);
+    private final Table stores = new Table(false);
+
+    private final Map<String, Duration> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Duration> bodyDelays = new ConcurrentHashMap<>();
+    private final Map<String, Fault> errorRates = new ConcurrentHashMap<>();
+    private final Map<String, Fault> pendingFailures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private volatile boolean etags;
+    private volatile Duration retryAfter;
+
+    public CasibaseStandInServer() {
+        // Responses are written as separate header and body segments; without TCP_NODELAY every call would
+        // pay a delayed-ACK round trip of up to 40ms and latency measurements would be meaningless.
+        server.setServerSocketFactory(new ServerSocketFactory() {
+            @Override
+            public ServerSocket createServerSocket() throws IOException {
+                return new NoDelayServerSocket();
+            }
+
+            @Override
+            public ServerSocket createServerSocket(int port) throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+                throw new UnsupportedOperationException();
+            }
+        });
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handle(request);
+            }
+        });
+    }
+
+    public CasibaseStandInServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return The base URL of the server, without a trailing slash, as expected by {@link Config#endpoint}.
+     */
+    public String endpoint() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    public Config config() {
+        return new Config(endpoint(), "client-id", "client-secret", ORGANIZATION, "app-casibase");
+    }
+
+    /**
+     * Delays the responses of the given operation, or of every operation when it is null.
+     */
+    public CasibaseStandInServer latency(String operation, Duration latency) {
+        latencies.put(key(operation), latency);
+        return this;
+    }
+
+    /**
+     * Sends the headers of the given operation's responses (every operation's when null) at once, and holds back
+     * their body for the given time, so that clients are left reading it.
+     */
+    public CasibaseStandInServer bodyDelay(String operation, Duration delay) {
+        bodyDelays.put(key(operation), delay);
+        return this;
+    }
+
+    /**
+     * Fails the given fraction of requests of an operation (every operation when null) with the given HTTP code.
+     * A code of 0 drops the connection instead of answering.
+     */
+    public CasibaseStandInServer errorRate(String operation, double rate, int httpCode) {
+        errorRates.put(key(operation), new Fault(httpCode, rate, 0));
+        return this;
+    }
+
+    /**
+     * Fails the next {@code count} requests of an operation (every operation when null) with the given HTTP code.
+     * A code of 0 drops the connection instead of answering.
+     */
+    public CasibaseStandInServer failNext(String operation, int count, int httpCode) {
+        pendingFailures.put(key(operation), new Fault(httpCode, 1, count));
+        return this;
+    }
+
+    /**
+     * Adds a {@code Retry-After} header to injected failures, or removes it when null.
+     */
+    public CasibaseStandInServer retryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    /**
+     * Tags successful GET responses with an {@code ETag} derived from their body and answers a matching
+     * {@code If-None-Match} with "304 Not Modified".
+     */
+    public CasibaseStandInServer etags(boolean enabled) {
+        etags = enabled;
+        return this;
+    }
+
+    /**
+     * Removes every injected latency and failure.
+     */
+    public CasibaseStandInServer reset() {
+        latencies.clear();
+        bodyDelays.clear();
+        errorRates.clear();
+        pendingFailures.clear();
+        retryAfter = null;
+        return this;
+    }
+
+    /**
+     * @return The number of requests received for the given operation, e.g. "get-store".
+     */
+    public int requestCount(String operation) {
+        AtomicInteger count = requestCounts.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    public void seedRecords(Collection<?> items) {
+        seed(records, items);
+    }
+
+    public void seedTasks(Collection<?> items) {
+        seed(tasks, items);
+    }
+
+    public void seedStores(Collection<?> items) {
+        seed(stores, items);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private void seed(Table table, Collection<?> items) {
+        for (Object item : items) {
+            table.put(mapper.valueToTree(item), null);
+        }
+    }
+
+    private MockResponse handle(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        if (url == null || !url.encodedPath().startsWith("/api/")) {
+            return new MockResponse().setResponseCode(404);
+        }
+        String operation = url.encodedPath().substring("/api/".length());
+        requestCounts.computeIfAbsent(operation, op -> new AtomicInteger()).incrementAndGet();
+
+        MockResponse response = injectedFailure(operation);
+        if (response != null && retryAfter != null) {
+            response.setHeader("Retry-After", retryAfter.getSeconds());
+        }
+        if (response == null) {
+            try {
+                response = ok(dispatch(operation, url, request));
+                if (etags && operation.startsWith("get-")) {
+                    response = tagged(response, request);
+                }
+            } catch (IllegalArgumentException e) {
+                response = error(e.getMessage());
+            } catch (IOException e) {
+                response = error("Invalid request body: " + e.getMessage());
+            }
+        }
+
+        Duration latency = latencies.getOrDefault(operation, latencies.get(""));
+        if (latency != null && !latency.isZero()) {
+            response.setHeadersDelay(latency.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        Duration bodyDelay = bodyDelays.getOrDefault(operation, bodyDelays.get(""));
+        if (bodyDelay != null && !bodyDelay.isZero()) {
+            response.setBodyDelay(bodyDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse injectedFailure(String operation) {
+        for (String key : new String[]{operation, ""}) {
+            Fault pending = pendingFailures.get(key);
+            if (pending != null && pending.remaining.getAndDecrement() > 0) {
+                return pending.response();
+            }
+            Fault rate = errorRates.get(key);
+            if (rate != null && ThreadLocalRandom.current().nextDouble() < rate.rate) {
+                return rate.response();
+            }
+        }
+        return null;
+    }
+
+    private Object[] dispatch(String operation, HttpUrl url, RecordedRequest request) throws IOException {
+        switch (operation) {
+            case "get-records":
+                return list(records, url);
+            case "get-record":
+                return new Object[]{records.get(url.queryParameter("id"))};
+            case "add-record":
+                return new Object[]{affected(records.put(body(request), null))};
+            case "update-record":
+                return new Object[]{affected(records.put(body(request), url.queryParameter("id")))};
+            case "delete-record":
+                return new Object[]{affected(records.remove(body(request)))};
+            case "get-tasks":
+                return list(tasks, url);
+            case "get-task":
+                return new Object[]{tasks.get(url.queryParameter("id"))};
+            case "add-task":
+                return new Object[]{affected(tasks.put(body(request), null))};
+            case "update-task":
+                return new Object[]{affected(tasks.put(body(request), url.queryParameter("id")))};
+            case "delete-task":
+                return new Object[]{affected(tasks.remove(body(request)))};
+            case "get-stores":
+                return list(stores, url);
+            case "get-store":
+                return new Object[]{stores.get(url.queryParameter("id"))};
+            case "add-store":
+                return new Object[]{affected(stores.put(body(request), null))};
+            case "update-store":
+                return new Object[]{affected(stores.put(body(request), url.queryParameter("id")))};
+            case "delete-store":
+                return new Object[]{affected(stores.remove(body(request)))};
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private Object[] list(Table table, HttpUrl url) {
+        List<ObjectNode> rows = table.list(url.queryParameter("owner"), url.queryParameter("field"), url.queryParameter("value"));
+        String sortField = url.queryParameter("sortField");
+        if (sortField != null && !sortField.isEmpty()) {
+            Comparator<ObjectNode> comparator = Comparator.comparing(row -> row.path(sortField),
+                    CasibaseStandInServer::compareValues);
+            rows.sort("descend".equals(url.queryParameter("sortOrder")) ? comparator.reversed() : comparator);
+        }
+
+        String p = url.queryParameter("p");
+        if (p == null || p.isEmpty()) {
+            return new Object[]{rows, rows.size()};
+        }
+        int pageSize = Integer.parseInt(url.queryParameter("pageSize"));
+        int from = Math.min(rows.size(), (Integer.parseInt(p) - 1) * pageSize);
+        int to = Math.min(rows.size(), from + pageSize);
+        return new Object[]{rows.subList(from, to), rows.size()};
+    }
+
+    private static int compareValues(JsonNode a, JsonNode b) {
+        if (a.isNumber() && b.isNumber()) {
+            return Double.compare(a.asDouble(), b.asDouble());
+        }
+        return a.asText().compareTo(b.asText());
+    }
+
+    private ObjectNode body(RecordedRequest request) throws IOException {
+        JsonNode node = mapper.readTree(request.getBody().readUtf8());
+        if (!(node instanceof ObjectNode)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        return (ObjectNode) node;
+    }
+
+    private static String affected(boolean affected) {
+        return affected ? "Affected" : "Unaffected";
+    }
+
+    private MockResponse ok(Object[] data) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("status", "ok");
+        body.put("msg", "");
+        body.set("data", mapper.valueToTree(data[0]));
+        body.set("data2", data.length > 1 ? mapper.valueToTree(data[1]) : null);
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(mapper.writeValueAsString(body));
+    }
+
+    private static MockResponse tagged(MockResponse response, RecordedRequest request) {
+        String etag = "\"" + Objects.requireNonNull(response.getBody()).md5().hex() + "\"";
+        if (etag.equals(request.getHeader("If-None-Match"))) {
+            return new MockResponse().setResponseCode(304).setHeader("ETag", etag);
+        }
+        return response.setHeader("ETag", etag);
+    }
+
+    private MockResponse error(String message) {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("status", "error");
+        body.put("msg", message);
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setBody(body.toString());
+    }
+
+    private static String key(String operation) {
+        return operation == null ? "" : operation;
+    }
+
+    private static class NoDelayServerSocket extends ServerSocket {
+        NoDelayServerSocket() throws IOException {
+            super();
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            Socket socket = super.accept();
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+
+    private static class Fault {
+        final int httpCode;
+        final double rate;
+        final AtomicInteger remaining;
+
+        Fault(int httpCode, double rate, int count) {
+            this.httpCode = httpCode;
+            this.rate = rate;
+            this.remaining = new AtomicInteger(count);
+        }
+
+        MockResponse response() {
+            if (httpCode == 0) {
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+            }
+            return new MockResponse().setResponseCode(httpCode).setBody("injected failure");
+        }
+    }
+
+    /**
+     * An in-memory table keyed by "owner/name", in insertion order. Records get an auto-incremented id.
+     */
+    private static class Table {
+        private final boolean autoId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, ObjectNode> rows = new LinkedHashMap<>();
+        private int nextId = 1;
+
+        Table(boolean autoId) {
+            this.autoId = autoId;
+        }
+
+        ObjectNode get(String id) {
+            lock.lock();
+            try {
+                return rows.get(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<ObjectNode> list(String owner, String field, String value) {
+            lock.lock();
+            try {
+                List<ObjectNode> result = new ArrayList<>(rows.size());
+                for (ObjectNode row : rows.values()) {
+                    if (owner != null && !owner.isEmpty() && !owner.equals(row.path("owner").asText())) {
+                        continue;
+                    }
+                    if (field != null && !field.isEmpty() && value != null && !value.isEmpty()
+                            && !row.path(field).asText().contains(value)) {
+                        continue;
+                    }
+                    result.add(row);
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Inserts the row, or replaces the row stored under {@code id} when it is given.
+         *
+         * @return false if {@code id} does not exist.
+         */
+        boolean put(ObjectNode row, String id) {
+            lock.lock();
+            try {
+                String key = row.path("owner").asText() + "/" + row.path("name").asText();
+                if (id != null) {
+                    ObjectNode previous = rows.remove(id);
+                    if (previous == null) {
+                        return false;
+                    }
+                    if (autoId) {
+                        row.put("id", previous.path("id").asInt());
+                    }
+                } else if (autoId) {
+                    row.put("id", nextId++);
+                }
+                rows.put(key, row);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(ObjectNode row) {
+            lock.lock();
+            try {
+                return rows.remove(row.path("owner").asText() + "/" + row.path("name").asText()) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}